@@ -2,13 +2,15 @@ package com.authorizationserver;
 
 import com.authorizationserver.entity.Role;
 import com.authorizationserver.entity.UserEntity;
+import com.authorizationserver.entity.UserRole;
 import com.authorizationserver.repository.RoleRepository;
 import com.authorizationserver.repository.UserRepository;
+import com.authorizationserver.service.RoleService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -17,6 +19,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @SpringBootApplication
+@EnableScheduling
 public class AuthServiceApplication {
 
 	public static void main(String[] args) {
@@ -24,22 +27,24 @@ public class AuthServiceApplication {
 	}
 
 	@Bean
-	CommandLineRunner commandLineRunner (UserRepository userRepository, RoleRepository roleRepository) {
+	CommandLineRunner commandLineRunner (UserRepository userRepository, RoleRepository roleRepository,
+										 RoleService roleService, PasswordEncoder encoder) {
 		return args -> {
 			roleRepository.deleteAll();
 			userRepository.deleteAll();
 
-			PasswordEncoder encoder = new BCryptPasswordEncoder();
-			Role developerRole = new Role(null, "DEVELOPER", "Developer Role");
-			Role employerRole = new Role(null, "EMPLOYER", "Employer Role");
-			Role adminRole = new Role(null, "ADMIN", "Admin Role");
+			// Every role is recreated, so their bits are handed out from zero again
+			roleService.resetBits();
+			Role developerRole = new Role(null, "DEVELOPER", "Developer Role", roleService.nextBit());
+			Role employerRole = new Role(null, "EMPLOYER", "Employer Role", roleService.nextBit());
+			Role adminRole = new Role(null, "ADMIN", "Admin Role", roleService.nextBit());
 			roleRepository.saveAll(Arrays.asList(developerRole, employerRole, adminRole));
 
 			List<UserEntity> users = new ArrayList<>();
-			users.add(new UserEntity("john_doe", "john@gmail.com", encoder.encode("john123"), List.of(developerRole), LocalDateTime.now()));
-			users.add(new UserEntity("alice_smith", "alice@gmail.com", encoder.encode("alice123"), List.of(developerRole), LocalDateTime.now()));
-			users.add(new UserEntity("sarah", "sarah@gmail.com", encoder.encode("sarah123"), List.of(employerRole), LocalDateTime.now()));
-			users.add(new UserEntity("peter", "peter@gmail.com", encoder.encode("peter123"), List.of(adminRole), LocalDateTime.now()));
+			users.add(new UserEntity("john_doe", "john@gmail.com", encoder.encode("john123"), List.of(new UserRole(developerRole)), LocalDateTime.now()));
+			users.add(new UserEntity("alice_smith", "alice@gmail.com", encoder.encode("alice123"), List.of(new UserRole(developerRole)), LocalDateTime.now()));
+			users.add(new UserEntity("sarah", "sarah@gmail.com", encoder.encode("sarah123"), List.of(new UserRole(employerRole)), LocalDateTime.now()));
+			users.add(new UserEntity("peter", "peter@gmail.com", encoder.encode("peter123"), List.of(new UserRole(adminRole)), LocalDateTime.now()));
 
 			userRepository.saveAll(users);
 		};
@@ -16,6 +16,48 @@ public class AppConfig {
     @Value("${application.jwt.refreshTokenExpiration}")
     private Long refreshTokenExpiration;
 
+    @Value("${application.jwt.signingAlgorithm}")
+    private String signingAlgorithm;
+
+    @Value("${application.jwt.keyRotationPeriod}")
+    private Long keyRotationPeriod;
+
+    @Value("${application.jwt.keyRefreshInterval}")
+    private Long keyRefreshInterval;
+
+    @Value("${application.jwt.jwksMaxAge}")
+    private Long jwksMaxAge;
+
+    @Value("${application.jwt.revocationRefreshInterval}")
+    private Long revocationRefreshInterval;
+
+    @Value("${application.jwt.revocationFeedSecret}")
+    private String revocationFeedSecret;
+
+    @Value("${application.jwt.compactRoles}")
+    private Boolean compactRoles;
+
     @Value("${spring.security.oauth2.authorization-server.jwt.issuer-uri}")
     private String jwtIssuerUri;
+
+    @Value("${application.cache.userDetailsTtl}")
+    private Long userDetailsCacheTtl;
+
+    @Value("${application.cache.userDetailsMaximumSize}")
+    private Long userDetailsCacheMaximumSize;
+
+    @Value("${application.security.passwordHashingThreads}")
+    private Integer passwordHashingThreads;
+
+    @Value("${application.security.passwordHashingQueueSize}")
+    private Integer passwordHashingQueueSize;
+
+    @Value("${application.security.bcryptStrength}")
+    private Integer bcryptStrength;
+
+    @Value("${application.security.bcryptTargetMillis}")
+    private Long bcryptTargetMillis;
+
+    @Value("${application.security.bcryptMinimumStrength}")
+    private Integer bcryptMinimumStrength;
 }
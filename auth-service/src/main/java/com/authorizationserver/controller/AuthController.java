@@ -1,21 +1,34 @@
 package com.authorizationserver.controller;
 
+import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.exceptions.AuthAPIException;
 import com.authorizationserver.request.AuthRequest;
 import com.authorizationserver.request.RefreshTokenRequest;
+import com.authorizationserver.request.RevokeTokenRequest;
+import com.authorizationserver.response.RevocationFeed;
 import com.authorizationserver.request.UserRequest;
+import com.authorizationserver.security.JwksDocument;
 import com.authorizationserver.service.AuthService;
+import com.authorizationserver.service.RevocationService;
 import com.nimbusds.jose.JOSEException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.text.ParseException;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -25,17 +38,29 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final AuthService authService;
+    private final RevocationService revocationService;
+    private final AppConfig appConfig;
 
-    public AuthController(AuthenticationManager authenticationManager, AuthService authService) {
+    public AuthController(AuthenticationManager authenticationManager, AuthService authService,
+                          RevocationService revocationService, AppConfig appConfig) {
         this.authenticationManager = authenticationManager;
         this.authService = authService;
+        this.revocationService = revocationService;
+        this.appConfig = appConfig;
     }
 
     @Operation(summary = "Get JSON Web Key Set", description = "Retrieve public keys for verifying JWT tokens", hidden = true)
-    @GetMapping("/.well-known/jwks.json")
-    public Map<String, Object> getJwkSet() {
-        log.info("Inside getJwkSet");
-        return authService.getJwkSet();
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJwkSet(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                            String ifNoneMatch) {
+        return publishedDocument(authService.getJwksDocument(), ifNoneMatch);
+    }
+
+    @Operation(summary = "Get role registry", description = "Bit of every role in the compact role claim", hidden = true)
+    @GetMapping(value = "/.well-known/roles.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getRoleRegistry(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                  String ifNoneMatch) {
+        return publishedDocument(authService.getRoleRegistryDocument(), ifNoneMatch);
     }
 
     @Operation(summary = "Register a new user", description = "Register a new user with username and password")
@@ -54,9 +79,10 @@ public class AuthController {
 
         UsernamePasswordAuthenticationToken authenticationToken =
                 new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword());
-        authenticationManager.authenticate(authenticationToken);
+        Authentication authentication = authenticationManager.authenticate(authenticationToken);
 
-        Map<String, Object> accessToken = authService.getToken(authRequest.getUsername());
+        // Mint from the authenticated principal instead of loading the user a second time
+        Map<String, Object> accessToken = authService.getToken((UserDetails) authentication.getPrincipal());
 
         return ResponseEntity.ok(accessToken);
     }
@@ -72,4 +98,44 @@ public class AuthController {
 
         return ResponseEntity.ok(refreshToken);
     }
+
+    @Operation(summary = "Revoke a token", description = "Revoke an access token, or the family of a refresh token")
+    @ApiResponse(responseCode = "204", description = "Token revoked")
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeToken(@RequestBody RevokeTokenRequest revokeTokenRequest)
+            throws ParseException, JOSEException {
+        authService.revokeToken(revokeTokenRequest.getToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get revocations", description = "Revoked access tokens and subjects after the given " +
+            "version, for resource servers presenting the feed secret", hidden = true)
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationFeed> getRevocations(
+            @RequestHeader(value = RevocationService.SECRET_HEADER, required = false) String secret,
+            @RequestParam(defaultValue = "0") long since) {
+        if (!revocationService.isFeedClient(secret)) {
+            throw new AuthAPIException(HttpStatus.UNAUTHORIZED, "Invalid revocation feed secret");
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(revocationService.getRevocations(since));
+    }
+
+    private ResponseEntity<byte[]> publishedDocument(JwksDocument jwksDocument, String ifNoneMatch) {
+        CacheControl cacheControl = CacheControl.maxAge(appConfig.getJwksMaxAge(), TimeUnit.SECONDS).cachePublic();
+
+        if (jwksDocument.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwksDocument.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(jwksDocument.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwksDocument.body());
+    }
 }
@@ -49,6 +49,14 @@ public class RoleController {
         return ResponseEntity.ok(roleService.getRoleById(id));
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Update role by ID", description = "Update a role and the role name held by its users (Admin only)")
+    @ApiResponse(responseCode = "200", description = "Role successfully updated")
+    @PutMapping("/{id}")
+    public ResponseEntity<Role> updateRole(@PathVariable String id, @RequestBody Role role) {
+        return ResponseEntity.ok(roleService.updateRole(id, role));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete role by ID", description = "Delete a role by its ID (Admin only)")
     @ApiResponse(responseCode = "204", description = "Role successfully deleted")
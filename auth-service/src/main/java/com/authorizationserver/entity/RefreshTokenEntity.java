@@ -0,0 +1,36 @@
+package com.authorizationserver.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshTokenEntity {
+
+    @Id
+    private String id;  // jti of the refresh token
+
+    // Every token rotated from the same login shares the family of the first one
+    @Indexed
+    private String familyId;
+    private String username;
+    private Instant issuedAt;
+
+    // Set once the token has been exchanged, a second exchange is a replay
+    private Instant usedAt;
+
+    @Indexed(sparse = true)
+    private Instant revokedAt;
+
+    // Removed by MongoDB once the token has expired anyway
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,37 @@
+package com.authorizationserver.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "revocations")
+public class RevocationEntity {
+
+    public static final String TYPE_TOKEN = "jti";
+    public static final String TYPE_SUBJECT = "sub";
+
+    @Id
+    private String id;
+
+    // Position in the revocation feed, resource servers poll for everything after the last one they saw
+    @Indexed(unique = true)
+    private Long seq;
+
+    private String type;
+
+    // The jti of a single access token, or the keyed hash of a subject whose earlier tokens are all revoked
+    private String value;
+    private Instant revokedAt;
+
+    // No access token covered by this entry is still valid past this point
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
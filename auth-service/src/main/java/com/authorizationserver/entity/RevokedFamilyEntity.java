@@ -0,0 +1,26 @@
+package com.authorizationserver.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "revoked_refresh_token_families")
+public class RevokedFamilyEntity {
+
+    @Id
+    private String id;  // familyId of the revoked refresh tokens
+
+    private Instant revokedAt;
+
+    // Every token of the family has expired by then, so the revocation is no longer needed
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
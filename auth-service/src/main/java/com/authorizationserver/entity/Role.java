@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -16,4 +17,12 @@ public class Role {
     private String id;
     private String name;
     private String description;
+
+    // Position of the role in the compact role claim, never reused once handed out
+    @Indexed(unique = true, sparse = true)
+    private Integer bit;
+
+    public Role(String id, String name, String description) {
+        this(id, name, description, null);
+    }
 }
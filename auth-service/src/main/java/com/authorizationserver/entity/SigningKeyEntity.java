@@ -0,0 +1,31 @@
+package com.authorizationserver.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "signing_keys")
+public class SigningKeyEntity {
+
+    @Id
+    private String id;  // key ID (kid) published in the JWKS
+    private String algorithm;
+
+    // Serialized JWK including the private part, never expose this collection
+    private String jwk;
+
+    // Start of the rotation slot in which this key signs tokens
+    private Instant activatesAt;
+
+    // Removed by MongoDB once no token signed with this key can still be valid
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
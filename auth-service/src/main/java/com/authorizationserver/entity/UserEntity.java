@@ -5,7 +5,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -26,11 +25,10 @@ public class UserEntity {
     private String password;
     private LocalDateTime createdAt;
 
-    // Reference to multiple roles
-    @DBRef
-    private List<Role> roles;
+    // Embedded role snapshots, so loading a user needs no extra query on the roles collection
+    private List<UserRole> roles;
 
-    public UserEntity(String username, String email, String password, List<Role> roles, LocalDateTime createdAt) {
+    public UserEntity(String username, String email, String password, List<UserRole> roles, LocalDateTime createdAt) {
         this.username = username;
         this.email = email;
         this.password = password;
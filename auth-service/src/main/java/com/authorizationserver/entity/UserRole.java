@@ -0,0 +1,20 @@
+package com.authorizationserver.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Snapshot of a role embedded in each user, kept in sync by RoleService
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRole {
+
+    private String roleId;
+    private String name;
+
+    public UserRole(Role role) {
+        this.roleId = role.getId();
+        this.name = role.getName();
+    }
+}
@@ -0,0 +1,87 @@
+package com.authorizationserver.migration;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites users whose roles are still stored as {@code @DBRef} references into the embedded
+ * {@code {roleId, name}} snapshots. Runs on every startup before the seed data, is idempotent
+ * (only documents holding {@code $ref} entries are touched) and writes in unordered batches.
+ */
+@Component
+@Order(0)
+@Slf4j
+public class UserRoleMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UserRoleMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = migrate();
+        if (migrated > 0) {
+            log.info("Migrated {} users to embedded roles", migrated);
+        }
+    }
+
+    public long migrate() {
+        Map<Object, String> roleNames = new HashMap<>();
+        for (Document role : mongoTemplate.getCollection("roles").find()) {
+            roleNames.put(role.get("_id"), role.getString("name"));
+        }
+
+        MongoCollection<Document> users = mongoTemplate.getCollection("users");
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        long migrated = 0;
+
+        for (Document user : users.find(Filters.exists("roles.$ref")).batchSize(BATCH_SIZE)) {
+            List<Document> embeddedRoles = new ArrayList<>();
+            for (Object entry : user.getList("roles", Object.class)) {
+                if (entry instanceof DBRef ref) {
+                    String name = roleNames.get(ref.getId());
+                    if (name == null) {
+                        // The referenced role was deleted, a DBRef would have resolved to null
+                        continue;
+                    }
+                    embeddedRoles.add(new Document("roleId", ref.getId().toString()).append("name", name));
+                } else if (entry instanceof Document embedded) {
+                    embeddedRoles.add(embedded);
+                }
+            }
+
+            batch.add(new UpdateOneModel<>(Filters.eq("_id", user.get("_id")), Updates.set("roles", embeddedRoles)));
+            if (batch.size() == BATCH_SIZE) {
+                migrated += users.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrated += users.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return migrated;
+    }
+}
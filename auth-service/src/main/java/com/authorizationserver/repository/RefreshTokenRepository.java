@@ -0,0 +1,7 @@
+package com.authorizationserver.repository;
+
+import com.authorizationserver.entity.RefreshTokenEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshTokenEntity, String> {
+}
@@ -0,0 +1,11 @@
+package com.authorizationserver.repository;
+
+import com.authorizationserver.entity.SigningKeyEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SigningKeyRepository extends MongoRepository<SigningKeyEntity, String> {
+    List<SigningKeyEntity> findByExpiresAtAfterOrderByActivatesAtAsc(Instant now);
+}
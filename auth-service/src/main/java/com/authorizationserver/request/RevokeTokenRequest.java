@@ -0,0 +1,13 @@
+package com.authorizationserver.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokeTokenRequest {
+
+    private String token;
+}
@@ -0,0 +1,21 @@
+package com.authorizationserver.response;
+
+import com.authorizationserver.entity.RevocationEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One page of the revocation feed. {@code version} is the sequence number to pass as {@code since}
+ * on the next poll; {@code hasMore} asks the caller to poll again straight away.
+ */
+public record RevocationFeed(long version, boolean hasMore, List<Revocation> revocations) {
+
+    public record Revocation(long seq, String type, String value, Instant revokedAt, Instant expiresAt) {
+
+        public static Revocation of(RevocationEntity entity) {
+            return new Revocation(entity.getSeq(), entity.getType(), entity.getValue(),
+                    entity.getRevokedAt(), entity.getExpiresAt());
+        }
+    }
+}
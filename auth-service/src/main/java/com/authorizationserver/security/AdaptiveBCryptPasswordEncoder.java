@@ -0,0 +1,71 @@
+package com.authorizationserver.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost can be calibrated to a target hashing time on the current host. New
+ * hashes use the encoder's cost. Unlike {@link BCryptPasswordEncoder}, it asks for a rehash whenever
+ * the stored cost falls outside {@code [minimumStrength, strength]}, in either direction. Moving to
+ * smaller hardware therefore lowers the per-login CPU as users log in, never below the minimum.
+ * Replicas that calibrate to different costs accept each other's hashes instead of rewriting them
+ * back and forth.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final int MAXIMUM_STRENGTH = 31;
+    private static final Pattern COST = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int minimumStrength;
+    private final int strength;
+
+    // A fixed cost, every other stored cost is rehashed
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        this(strength, strength);
+    }
+
+    public AdaptiveBCryptPasswordEncoder(int minimumStrength, int strength) {
+        super(strength);
+        this.minimumStrength = minimumStrength;
+        this.strength = strength;
+    }
+
+    // Measures the minimum cost and doubles from there, each cost step doubles the work
+    public static AdaptiveBCryptPasswordEncoder calibrated(Duration target, int minimumStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minimumStrength);
+        long elapsed = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            // The first rounds warm up the JIT, the fastest one is the closest to steady state
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            elapsed = Math.min(elapsed, System.nanoTime() - start);
+        }
+
+        int strength = minimumStrength;
+        while (strength < MAXIMUM_STRENGTH && elapsed * 2 <= target.toNanos()) {
+            elapsed *= 2;
+            strength++;
+        }
+        return new AdaptiveBCryptPasswordEncoder(minimumStrength, strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return false;
+        }
+        int cost = Integer.parseInt(matcher.group(1));
+        return cost < minimumStrength || cost > strength;
+    }
+}
@@ -1,7 +1,9 @@
 package com.authorizationserver.security;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.authorizationserver.config.AppConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,26 +13,32 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
 import java.util.Collections;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableWebSecurity
+@Slf4j
 public class AuthConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final AppConfig appConfig;
 
     @Autowired
-    public AuthConfig(CustomUserDetailsService userDetailsService) {
+    public AuthConfig(CustomUserDetailsService userDetailsService, AppConfig appConfig) {
         this.userDetailsService = userDetailsService;
+        this.appConfig = appConfig;
     }
 
     @Bean
@@ -51,34 +59,43 @@ public class AuthConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        // Platform threads sized to the CPU, hashing is pure computation and gains nothing from more.
+        // Not exposed as a bean, an Executor bean would replace Boot's application task executor
+        int threads = appConfig.getPasswordHashingThreads() > 0
+                ? appConfig.getPasswordHashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(appConfig.getPasswordHashingQueueSize()),
+                new CustomizableThreadFactory("password-hashing-"));
+        ExecutorService hashingExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+
+        return new OffloadingPasswordEncoder(delegatingPasswordEncoder(), hashingExecutor);
     }
 
-    @Bean
-    public AuthenticationManager authenticationManager() throws Exception {
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+    // New hashes are {bcrypt} at the configured or calibrated cost. Legacy hashes without an id
+    // prefix are plain BCrypt; they and any other outdated hash are rehashed after a successful login
+    private PasswordEncoder delegatingPasswordEncoder() {
+        AdaptiveBCryptPasswordEncoder bcrypt = appConfig.getBcryptStrength() > 0
+                ? new AdaptiveBCryptPasswordEncoder(appConfig.getBcryptStrength())
+                : AdaptiveBCryptPasswordEncoder.calibrated(Duration.ofMillis(appConfig.getBcryptTargetMillis()),
+                appConfig.getBcryptMinimumStrength());
+        log.info("Hashing passwords with BCrypt strength {}", bcrypt.getStrength());
 
-        return new ProviderManager(Collections.singletonList(authenticationProvider));
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
     @Bean
-    public KeyPair keyPair() throws Exception {
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
-        keyGen.initialize(2048);
-        return keyGen.generateKeyPair();
-    }
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
 
-    @Bean
-    public JWKSet jwkSet(KeyPair keyPair) {
-        RSAPublicKey rsaPublicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey rsaPrivateKey = (RSAPrivateKey) keyPair.getPrivate();
-        RSAKey rsaKey = new RSAKey.Builder(rsaPublicKey)
-                .privateKey(rsaPrivateKey)
-                .keyID(UUID.randomUUID().toString())
-                .build();
-        return new JWKSet(rsaKey);
+        return new ProviderManager(Collections.singletonList(authenticationProvider));
     }
 }
@@ -1,15 +1,20 @@
 package com.authorizationserver.security;
 
-import com.authorizationserver.entity.Role;
 import com.authorizationserver.entity.UserEntity;
+import com.authorizationserver.entity.UserRole;
 import com.authorizationserver.repository.UserRepository;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -21,21 +26,44 @@ import java.util.stream.Collectors;
 @Component
 @ToString
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final MongoTemplate mongoTemplate;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    UserDetailsCache userDetailsCache,
+                                    MongoTemplate mongoTemplate) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.mongoTemplate = mongoTemplate;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromRepository);
+    }
+
+    // Called after a successful login whose stored hash uses an outdated algorithm or cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("username").is(user.getUsername())),
+                Update.update("password", newPassword), UserEntity.class);
+        userDetailsCache.evict(user.getUsername());
+        log.debug("Rehashed password of user: {}", user.getUsername());
+
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    private UserDetails loadFromRepository(String username) {
         UserEntity userEntity = userRepository
                 .findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Username not found"));
-        log.info("User: {}", userEntity);
+        log.debug("User: {}", userEntity);
 
         return User
                 .withUsername(userEntity.getUsername())
@@ -44,7 +72,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .build();
     }
 
-    private Collection<GrantedAuthority> mapRolesToAuthorities(List<Role> roles) {
+    private Collection<GrantedAuthority> mapRolesToAuthorities(List<UserRole> roles) {
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName())).collect(Collectors.toList());
     }
@@ -0,0 +1,42 @@
+package com.authorizationserver.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The public JWK set rendered once into the bytes served by the JWKS endpoint, with a strong ETag
+ * derived from its content so resource servers can revalidate without downloading it again. The
+ * role registry published next to it is served the same way.
+ */
+public record JwksDocument(byte[] body, String etag) {
+
+    public static JwksDocument render(JWKSet publicJwkSet) {
+        return of(publicJwkSet.toString(true).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JwksDocument of(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new JwksDocument(body, "\"" + Base64URL.encode(digest) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
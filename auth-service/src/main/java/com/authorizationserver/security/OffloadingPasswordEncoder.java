@@ -0,0 +1,65 @@
+package com.authorizationserver.security;
+
+import com.authorizationserver.exceptions.AuthAPIException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the hashing of a delegate {@link PasswordEncoder} on a dedicated, bounded pool of platform
+ * threads. Request handling runs on virtual threads, which would otherwise all pile onto the
+ * carrier threads with CPU-bound BCrypt work and starve cheap I/O-bound requests such as the JWKS
+ * endpoint. The calling virtual thread simply parks until its hash is done; when the queue is full
+ * the request is rejected with 503 instead of queueing without bound.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, ExecutorService executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T call(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            throw new AuthAPIException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent logins, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
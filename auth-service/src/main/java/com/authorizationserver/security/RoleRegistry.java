@@ -0,0 +1,100 @@
+package com.authorizationserver.security;
+
+import com.authorizationserver.entity.Role;
+import com.authorizationserver.repository.RoleRepository;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps authorities to their bit in the compact {@code rm} claim, a bitmask that replaces the list of
+ * role names in access tokens. The mapping is published next to the JWKS so resource servers can
+ * turn the mask back into authorities, and reloaded on role changes and on the key refresh interval
+ * to pick up roles created on other replicas.
+ */
+@Component
+@Slf4j
+public class RoleRegistry {
+
+    public static final String CLAIM = "rm";
+    public static final int MAX_BITS = 63;
+
+    private record Snapshot(Map<String, Integer> bits, JwksDocument document) {
+    }
+
+    private final RoleRepository roleRepository;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), render(Map.of()));
+
+    @Autowired
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    // Runs after the seed data has been written
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.keyRefreshInterval}",
+            initialDelayString = "${application.jwt.keyRefreshInterval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Tokens fall back to role names for roles we do not know yet
+            log.error("Unable to reload the role registry", e);
+        }
+    }
+
+    public void reload() {
+        Map<String, Integer> bits = new TreeMap<>();
+        for (Role role : roleRepository.findAll()) {
+            if (role.getBit() != null) {
+                bits.put("ROLE_" + role.getName(), role.getBit());
+            }
+        }
+        if (!bits.equals(snapshot.bits())) {
+            snapshot = new Snapshot(Map.copyOf(bits), render(bits));
+            log.info("Role registry updated: {}", bits);
+        }
+    }
+
+    /**
+     * Returns the bitmask of the given authorities, or null when one of them has no bit yet and the
+     * token has to carry role names.
+     */
+    public Long mask(Collection<String> authorities) {
+        Map<String, Integer> bits = snapshot.bits();
+        long mask = 0;
+        for (String authority : authorities) {
+            Integer bit = bits.get(authority);
+            if (bit == null) {
+                return null;
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    public JwksDocument getDocument() {
+        return snapshot.document();
+    }
+
+    private static JwksDocument render(Map<String, Integer> bits) {
+        // Sorted so every replica renders the same bytes and ETag
+        return JwksDocument.of(JSONObjectUtils.toJSONString(Map.of("roles", new TreeMap<>(bits)))
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
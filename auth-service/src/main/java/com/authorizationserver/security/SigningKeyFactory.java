@@ -0,0 +1,109 @@
+package com.authorizationserver.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import java.util.Set;
+
+/**
+ * Generates signing keys and builds the matching Nimbus signer and verifier for each supported
+ * algorithm. RS256 is kept for clients that only understand RSA; ES256 and EdDSA (Ed25519) sign
+ * considerably faster and produce shorter tokens.
+ */
+public final class SigningKeyFactory {
+
+    public static final Set<JWSAlgorithm> SUPPORTED_ALGORITHMS =
+            Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256, JWSAlgorithm.EdDSA);
+
+    private SigningKeyFactory() {
+    }
+
+    public static JWSAlgorithm parseAlgorithm(String name) {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(name);
+        if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Unsupported signing algorithm: " + name);
+        }
+        return algorithm;
+    }
+
+    public static JWK generate(JWSAlgorithm algorithm, String keyId) throws JOSEException {
+        if (JWSAlgorithm.RS256.equals(algorithm)) {
+            return new RSAKeyGenerator(2048)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(algorithm)
+                    .keyID(keyId)
+                    .generate();
+        }
+        if (JWSAlgorithm.ES256.equals(algorithm)) {
+            return new ECKeyGenerator(Curve.P_256)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(algorithm)
+                    .keyID(keyId)
+                    .generate();
+        }
+        if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+            return new OctetKeyPairGenerator(Curve.Ed25519)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(algorithm)
+                    .keyID(keyId)
+                    .generate();
+        }
+        throw new IllegalArgumentException("Unsupported signing algorithm: " + algorithm);
+    }
+
+    public static JWSAlgorithm algorithmOf(JWK jwk) {
+        if (jwk instanceof RSAKey) {
+            return JWSAlgorithm.RS256;
+        }
+        if (jwk instanceof ECKey) {
+            return JWSAlgorithm.ES256;
+        }
+        if (jwk instanceof OctetKeyPair) {
+            return JWSAlgorithm.EdDSA;
+        }
+        throw new IllegalArgumentException("Unsupported key type: " + jwk.getKeyType());
+    }
+
+    public static JWSSigner signer(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new RSASSASigner(rsaKey);
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECDSASigner(ecKey);
+        }
+        if (jwk instanceof OctetKeyPair octetKeyPair) {
+            return new Ed25519Signer(octetKeyPair);
+        }
+        throw new IllegalArgumentException("Unsupported key type: " + jwk.getKeyType());
+    }
+
+    public static JWSVerifier verifier(JWK jwk) throws JOSEException {
+        if (jwk instanceof RSAKey rsaKey) {
+            return new RSASSAVerifier(rsaKey.toPublicJWK());
+        }
+        if (jwk instanceof ECKey ecKey) {
+            return new ECDSAVerifier(ecKey.toPublicJWK());
+        }
+        if (jwk instanceof OctetKeyPair octetKeyPair) {
+            return new Ed25519Verifier(octetKeyPair.toPublicJWK());
+        }
+        throw new IllegalArgumentException("Unsupported key type: " + jwk.getKeyType());
+    }
+}
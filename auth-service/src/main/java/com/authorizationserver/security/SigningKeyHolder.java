@@ -0,0 +1,77 @@
+package com.authorizationserver.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the key currently used for signing together with its pre-built header and signer, plus a
+ * verifier for every published key and the rendered JWKS document. The whole key set is swapped
+ * atomically when the key store rotates, so the hot path only reads a volatile reference. The
+ * Nimbus signers and verifiers are thread-safe and shared by every request.
+ */
+@Component
+public class SigningKeyHolder {
+
+    public record SigningKey(JWK jwk, JWSHeader header, JWSSigner signer) {
+    }
+
+    private record KeySet(SigningKey activeKey, Map<String, JWSVerifier> verifiers, JwksDocument jwksDocument) {
+    }
+
+    private volatile KeySet keySet;
+
+    public void update(JWK activeKey, List<JWK> publishedKeys) throws JOSEException {
+        JWSHeader header = new JWSHeader.Builder(SigningKeyFactory.algorithmOf(activeKey))
+                .keyID(activeKey.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build();
+
+        Map<String, JWSVerifier> verifiers = new HashMap<>();
+        for (JWK jwk : publishedKeys) {
+            verifiers.put(jwk.getKeyID(), SigningKeyFactory.verifier(jwk));
+        }
+
+        this.keySet = new KeySet(
+                new SigningKey(activeKey, header, SigningKeyFactory.signer(activeKey)),
+                Map.copyOf(verifiers),
+                JwksDocument.render(new JWKSet(publishedKeys).toPublicJWKSet()));
+    }
+
+    public boolean isCurrent(String activeKeyId, Set<String> publishedKeyIds) {
+        KeySet current = keySet;
+        return current != null
+                && current.activeKey().jwk().getKeyID().equals(activeKeyId)
+                && current.verifiers().keySet().equals(publishedKeyIds);
+    }
+
+    public SigningKey getActiveKey() {
+        return currentKeySet().activeKey();
+    }
+
+    public JWSVerifier getVerifier(String keyId) {
+        return keyId == null ? null : currentKeySet().verifiers().get(keyId);
+    }
+
+    public JwksDocument getJwksDocument() {
+        return currentKeySet().jwksDocument();
+    }
+
+    private KeySet currentKeySet() {
+        KeySet current = keySet;
+        if (current == null) {
+            throw new IllegalStateException("No JWK key available");
+        }
+        return current;
+    }
+}
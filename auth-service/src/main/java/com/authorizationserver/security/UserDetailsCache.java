@@ -0,0 +1,62 @@
+package com.authorizationserver.security;
+
+import com.authorizationserver.config.AppConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of {@link UserDetails} by username. Callers always receive a copy because
+ * Spring Security erases the password of the authenticated principal, which would otherwise
+ * corrupt the cached entry. Evictions bump a generation, and a load that was in flight during an
+ * eviction is returned but not cached, so a deleted or changed user is never put back.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public UserDetailsCache(AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getUserDetailsCacheMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(appConfig.getUserDetailsCacheTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        // Not cache.get(key, loader): that loads inside a synchronized map bin and would pin the
+        // carrier of the virtual thread for the whole Mongo round trip
+        UserDetails userDetails = cache.getIfPresent(username);
+        if (userDetails == null) {
+            long loadedAt = generation.get();
+            UserDetails loaded = loader.apply(username);
+            // Checked under the entry's lock, which an eviction racing this load takes after bumping the generation
+            cache.asMap().compute(username, (key, current) -> generation.get() == loadedAt ? loaded : current);
+            userDetails = loaded;
+        }
+        return User.withUserDetails(userDetails).build();
+    }
+
+    public void evict(String username) {
+        generation.incrementAndGet();
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
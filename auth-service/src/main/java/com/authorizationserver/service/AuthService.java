@@ -1,20 +1,19 @@
 package com.authorizationserver.service;
 
 import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.entity.RefreshTokenEntity;
 import com.authorizationserver.entity.Role;
 import com.authorizationserver.entity.UserEntity;
+import com.authorizationserver.entity.UserRole;
 import com.authorizationserver.exceptions.AuthAPIException;
 import com.authorizationserver.repository.RoleRepository;
 import com.authorizationserver.repository.UserRepository;
 import com.authorizationserver.request.UserRequest;
+import com.authorizationserver.security.JwksDocument;
+import com.authorizationserver.security.RoleRegistry;
+import com.authorizationserver.security.SigningKeyHolder;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JOSEObjectType;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.extern.slf4j.Slf4j;
@@ -26,14 +25,13 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.security.KeyPair;
-import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 
@@ -42,32 +40,42 @@ import java.util.stream.Collectors;
 public class AuthService {
 
     private final AppConfig appConfig;
-    private final KeyPair keyPair;
-    private final JWKSet jwkSet;
+    private final SigningKeyHolder signingKeyHolder;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationService revocationService;
+    private final RoleRegistry roleRegistry;
 
     @Autowired
     public AuthService(AppConfig appConfig,
-                       KeyPair keyPair,
-                       JWKSet jwkSet,
+                       SigningKeyHolder signingKeyHolder,
                        UserRepository userRepository,
                        RoleRepository roleRepository,
                        PasswordEncoder passwordEncoder,
-                       UserDetailsService userDetailsService) {
+                       UserDetailsService userDetailsService,
+                       RefreshTokenService refreshTokenService,
+                       RevocationService revocationService,
+                       RoleRegistry roleRegistry) {
         this.appConfig = appConfig;
-        this.keyPair = keyPair;
-        this.jwkSet = jwkSet;
+        this.signingKeyHolder = signingKeyHolder;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationService = revocationService;
+        this.roleRegistry = roleRegistry;
     }
 
-    public Map<String, Object> getJwkSet() {
-        return jwkSet.toJSONObject();
+    public JwksDocument getJwksDocument() {
+        return signingKeyHolder.getJwksDocument();
+    }
+
+    public JwksDocument getRoleRegistryDocument() {
+        return roleRegistry.getDocument();
     }
 
     private boolean isTokenExpired(Date expirationTime) {
@@ -75,46 +83,58 @@ public class AuthService {
     }
 
     private String generateJwtToken(String username, List<String> roles, long expirationTime) throws JOSEException {
-        Date now = Date.from(Instant.now());
-        Date expiration = Date.from(Instant.now().plusSeconds(expirationTime));
-
+        Instant now = Instant.now();
         JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder()
                 .subject(username)
-                .notBeforeTime(now)
-                .expirationTime(expiration)
-                .issueTime(now)
-                .claim("roles", roles)
-                .issuer(appConfig.getJwtIssuerUri());
-
-        // Create JWS header with the key ID
-        JWK jwk = jwkSet.getKeys()
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new AuthAPIException(HttpStatus.NOT_FOUND, "No JWK key available"));
+                .jwtID(UUID.randomUUID().toString())
+                .notBeforeTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(expirationTime)))
+                .issueTime(Date.from(now));
+
+        // Access tokens travel with every request, so send a role bitmask instead of role names when possible
+        Long roleMask = appConfig.getCompactRoles() ? roleRegistry.mask(roles) : null;
+        if (roleMask != null) {
+            claimsBuilder.claim(RoleRegistry.CLAIM, roleMask);
+        } else {
+            claimsBuilder.claim("roles", roles);
+        }
+        return generateJwtToken(claimsBuilder);
+    }
 
-        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
-                .keyID(jwk.getKeyID())
-                .type(JOSEObjectType.JWT)
-                .build();
+    // Refresh tokens carry the jti and family id of their record in the refresh token store
+    private String generateRefreshToken(String username, List<String> roles, RefreshTokenEntity refreshToken)
+            throws JOSEException {
+        return generateJwtToken(new JWTClaimsSet.Builder()
+                .subject(username)
+                .jwtID(refreshToken.getId())
+                .claim("fid", refreshToken.getFamilyId())
+                .notBeforeTime(Date.from(refreshToken.getIssuedAt()))
+                .expirationTime(Date.from(refreshToken.getExpiresAt()))
+                .issueTime(Date.from(refreshToken.getIssuedAt()))
+                .claim("roles", roles));
+    }
+
+    private String generateJwtToken(JWTClaimsSet.Builder claimsBuilder) throws JOSEException {
+        claimsBuilder.issuer(appConfig.getJwtIssuerUri());
 
-        // Create the signed JWT
-        SignedJWT signedJWT = new SignedJWT(header, claimsBuilder.build());
-        RSASSASigner signer = new RSASSASigner(keyPair.getPrivate());
-        signedJWT.sign(signer);
+        // Sign with the pre-resolved header and signer of the active key
+        SigningKeyHolder.SigningKey signingKey = signingKeyHolder.getActiveKey();
+        SignedJWT signedJWT = new SignedJWT(signingKey.header(), claimsBuilder.build());
+        signedJWT.sign(signingKey.signer());
 
         // Serialize the JWT to a compact form
         return signedJWT.serialize();
     }
 
-    public Map<String, Object> getToken(String username) throws JOSEException {
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+    public Map<String, Object> getToken(UserDetails userDetails) throws JOSEException {
+        String username = userDetails.getUsername();
         List<String> roles = userDetails.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
 
         String accessToken = generateJwtToken(username, roles, appConfig.getAccessTokenExpiration());
-        String refreshToken = generateJwtToken(username, roles, appConfig.getRefreshTokenExpiration());
+        String refreshToken = generateRefreshToken(username, roles, refreshTokenService.issue(username));
 
         return Map.of(
                 "access_token", accessToken,
@@ -125,36 +145,65 @@ public class AuthService {
         );
     }
 
-    public Map<String, Object> getRefreshToken(String refreshToken) throws JOSEException, ParseException {
-        SignedJWT signedJWT = SignedJWT.parse(refreshToken);
+    /**
+     * Revokes the given token: a refresh token revokes its whole family, an access token is published
+     * on the revocation feed until it expires. Expired tokens need no revocation.
+     */
+    public void revokeToken(String token) throws JOSEException, ParseException {
+        JWTClaimsSet claims = verify(token, "Invalid token signature");
+        Date expirationTime = claims.getExpirationTime();
+        if (isTokenExpired(expirationTime)) {
+            return;
+        }
 
-        // Verify the signature of the refresh token
-        JWK jwk = jwkSet.getKeys()
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new AuthAPIException(HttpStatus.NOT_FOUND, "No JWK key available"));
-        RSAPublicKey publicKey = (RSAPublicKey) jwk.toRSAKey().toPublicKey();
-        RSASSAVerifier verifier = new RSASSAVerifier(publicKey);
-        if (!signedJWT.verify(verifier)) {
-            throw new AuthAPIException(HttpStatus.UNAUTHORIZED, "Invalid refresh token signature");
+        String familyId = claims.getStringClaim("fid");
+        if (familyId != null) {
+            refreshTokenService.revokeFamily(familyId);
+        } else if (claims.getJWTID() != null) {
+            revocationService.revokeToken(claims.getJWTID(), expirationTime.toInstant());
+        } else {
+            throw new AuthAPIException(HttpStatus.BAD_REQUEST, "Token has no jti and cannot be revoked");
+        }
+    }
+
+    private JWTClaimsSet verify(String token, String invalidSignatureMessage) throws JOSEException, ParseException {
+        SignedJWT signedJWT = SignedJWT.parse(token);
+
+        // Verify the signature of the token with the key it was signed with
+        JWSVerifier verifier = signingKeyHolder.getVerifier(signedJWT.getHeader().getKeyID());
+        if (verifier == null || !signedJWT.verify(verifier)) {
+            throw new AuthAPIException(HttpStatus.UNAUTHORIZED, invalidSignatureMessage);
         }
+        return signedJWT.getJWTClaimsSet();
+    }
+
+    public Map<String, Object> getRefreshToken(String refreshToken) throws JOSEException, ParseException {
+        JWTClaimsSet claims = verify(refreshToken, "Invalid refresh token signature");
 
         // Check if the token is expired
-        JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
         Date expirationTime = claims.getExpirationTime();
         if (isTokenExpired(expirationTime)) {
             throw new AuthAPIException(HttpStatus.UNAUTHORIZED, "Refresh token has expired");
         }
 
+        // Access tokens have no jti/family and are never accepted here
+        String tokenId = claims.getJWTID();
+        String familyId = claims.getStringClaim("fid");
+        if (tokenId == null || familyId == null) {
+            throw new AuthAPIException(HttpStatus.UNAUTHORIZED, "Not a refresh token");
+        }
+
         String username = claims.getSubject();
+        // Loaded first, so a deleted user's token fails without being marked used
         final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        RefreshTokenEntity rotatedToken = refreshTokenService.rotate(tokenId, familyId, username);
         List<String> roles = userDetails.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
 
         String newAccessToken = generateJwtToken(username, roles, appConfig.getAccessTokenExpiration());
-        String newRefreshToken = generateJwtToken(username, roles, appConfig.getRefreshTokenExpiration());
+        String newRefreshToken = generateRefreshToken(username, roles, rotatedToken);
 
         return Map.of(
                 "access_token", newAccessToken,
@@ -187,7 +236,7 @@ public class AuthService {
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRoles(validatedRoles);
+        user.setRoles(validatedRoles.stream().map(UserRole::new).toList());
         user.setCreatedAt(LocalDateTime.now());
         UserEntity savedUser = userRepository.save(user);
 
@@ -199,7 +248,7 @@ public class AuthService {
         userRequest.setUsername(userEntity.getUsername());
         userRequest.setEmail(userEntity.getEmail());
         userRequest.setRoles(userEntity.getRoles().stream()
-                .map(Role::getName)
+                .map(UserRole::getName)
                 .collect(Collectors.toList()));
         return userRequest;
     }
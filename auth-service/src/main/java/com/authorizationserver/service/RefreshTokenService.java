@@ -0,0 +1,164 @@
+package com.authorizationserver.service;
+
+import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.entity.RefreshTokenEntity;
+import com.authorizationserver.entity.RevokedFamilyEntity;
+import com.authorizationserver.exceptions.AuthAPIException;
+import com.authorizationserver.repository.RefreshTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-use refresh tokens. Each exchange atomically marks the presented token as used and issues
+ * its successor in the same family; presenting a used token again means it was replayed, so the
+ * whole family is revoked. A revocation is recorded in a per-family document first, then on every
+ * token of the family. Revoked families are also held in memory, refreshed from Mongo on a fixed
+ * interval, so replays of a revoked family are rejected without touching the database. The store
+ * stays authoritative, even on replicas that have not reloaded yet. Marking a token used only
+ * succeeds while the token is not revoked. A successor is checked against the family document after
+ * its insert, so one issued concurrently with a revocation is either revoked by it or rejected here.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig appConfig;
+
+    private volatile Set<String> revokedFamilies = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               MongoTemplate mongoTemplate,
+                               AppConfig appConfig) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.appConfig = appConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        reloadRevokedFamilies();
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.revocationRefreshInterval}",
+            initialDelayString = "${application.jwt.revocationRefreshInterval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void scheduledReload() {
+        try {
+            reloadRevokedFamilies();
+        } catch (Exception e) {
+            // Keep the families we know about, the store still rejects revoked tokens
+            log.error("Unable to reload revoked refresh token families", e);
+        }
+    }
+
+    public void reloadRevokedFamilies() {
+        Query query = Query.query(Criteria.where("expiresAt").gt(Instant.now()));
+        query.fields().include("id");
+        Set<String> families = ConcurrentHashMap.newKeySet();
+        for (RevokedFamilyEntity family : mongoTemplate.find(query, RevokedFamilyEntity.class)) {
+            families.add(family.getId());
+        }
+        revokedFamilies = families;
+    }
+
+    // Starts a new family on login
+    public RefreshTokenEntity issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor. Throws when the token is unknown, expired,
+     * revoked or already used; the latter also revokes every token of its family.
+     */
+    public RefreshTokenEntity rotate(String tokenId, String familyId, String username) {
+        if (revokedFamilies.contains(familyId)) {
+            throw new AuthAPIException(HttpStatus.UNAUTHORIZED, "Refresh token has been revoked");
+        }
+
+        Instant now = Instant.now();
+        Query unused = Query.query(Criteria.where("id").is(tokenId)
+                .and("familyId").is(familyId)
+                .and("usedAt").is(null)
+                .and("revokedAt").is(null)
+                .and("expiresAt").gt(now));
+        RefreshTokenEntity token = mongoTemplate.findAndModify(unused, Update.update("usedAt", now),
+                FindAndModifyOptions.options().returnNew(true), RefreshTokenEntity.class);
+        if (token == null) {
+            throw rejection(tokenId, familyId);
+        }
+
+        RefreshTokenEntity successor = issue(username, familyId);
+        // A revocation that recorded the family before this read may have updated the tokens before the insert
+        if (mongoTemplate.exists(Query.query(Criteria.where("id").is(familyId)), RevokedFamilyEntity.class)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(successor.getId())),
+                    Update.update("revokedAt", now), RefreshTokenEntity.class);
+            revokedFamilies.add(familyId);
+            throw new AuthAPIException(HttpStatus.UNAUTHORIZED, "Refresh token has been revoked");
+        }
+        return successor;
+    }
+
+    public void revokeFamily(String familyId) {
+        Instant now = Instant.now();
+        // Recorded before the tokens are updated, so rotate() sees it once a successor it inserts could be missed
+        mongoTemplate.upsert(Query.query(Criteria.where("id").is(familyId)),
+                new Update().setOnInsert("revokedAt", now)
+                        .setOnInsert("expiresAt", now.plusSeconds(appConfig.getRefreshTokenExpiration())),
+                RevokedFamilyEntity.class);
+        mongoTemplate.updateMulti(Query.query(Criteria.where("familyId").is(familyId).and("revokedAt").is(null)),
+                Update.update("revokedAt", now), RefreshTokenEntity.class);
+        revokedFamilies.add(familyId);
+    }
+
+    // Revokes every family the user still holds a live token of, e.g. once the user is deleted
+    public void revokeUser(String username) {
+        Query live = Query.query(Criteria.where("username").is(username).and("expiresAt").gt(Instant.now()));
+        for (String familyId : mongoTemplate.findDistinct(live, "familyId", RefreshTokenEntity.class, String.class)) {
+            revokeFamily(familyId);
+        }
+    }
+
+    // Only a failed exchange pays for the lookup that explains why it failed
+    private AuthAPIException rejection(String tokenId, String familyId) {
+        RefreshTokenEntity token = refreshTokenRepository.findById(tokenId).orElse(null);
+        if (token == null || !token.getFamilyId().equals(familyId)) {
+            return new AuthAPIException(HttpStatus.UNAUTHORIZED, "Unknown refresh token");
+        }
+        if (token.getRevokedAt() != null) {
+            revokedFamilies.add(familyId);
+            return new AuthAPIException(HttpStatus.UNAUTHORIZED, "Refresh token has been revoked");
+        }
+        if (token.getUsedAt() != null) {
+            log.warn("Refresh token {} of user {} was reused, revoking family {}",
+                    tokenId, token.getUsername(), familyId);
+            revokeFamily(familyId);
+            return new AuthAPIException(HttpStatus.UNAUTHORIZED, "Refresh token has already been used");
+        }
+        return new AuthAPIException(HttpStatus.UNAUTHORIZED, "Refresh token has expired");
+    }
+
+    private RefreshTokenEntity issue(String username, String familyId) {
+        Instant now = Instant.now();
+        RefreshTokenEntity token = new RefreshTokenEntity(UUID.randomUUID().toString(), familyId, username, now,
+                null, null, now.plusSeconds(appConfig.getRefreshTokenExpiration()));
+        return refreshTokenRepository.insert(token);
+    }
+}
@@ -0,0 +1,166 @@
+package com.authorizationserver.service;
+
+import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.entity.RevocationEntity;
+import com.authorizationserver.response.RevocationFeed;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Append-only feed of revoked access tokens and subjects that resource servers poll incrementally,
+ * so they can reject revoked tokens without introspecting every request. Each entry gets the next
+ * value of a sequence counter and expires together with the last access token it can affect, which
+ * keeps the feed and every poller's copy bounded by the access token lifetime.
+ * <p>
+ * A sequence number is taken before its entry is written, so the counter also lists the numbers
+ * whose entries are still being written. The feed only serves entries up to the number before the
+ * oldest of them. A slow insert therefore holds pollers back instead of landing behind a version
+ * they have already moved past. A number left pending by a crashed writer is ignored once an access
+ * token lifetime has passed, because its entry would have expired by then.
+ * <p>
+ * The feed is only served to resource servers presenting the shared feed secret, and subjects are
+ * published as an HMAC keyed with that secret.
+ */
+@Service
+public class RevocationService {
+
+    public static final String SECRET_HEADER = "X-Revocation-Feed-Secret";
+
+    private static final String COUNTERS = "counters";
+    private static final String COUNTER_ID = "revocations";
+    private static final int PAGE_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig appConfig;
+    private SecretKeySpec subjectKey;
+    private byte[] feedSecret;
+
+    @Autowired
+    public RevocationService(MongoTemplate mongoTemplate, AppConfig appConfig) {
+        this.mongoTemplate = mongoTemplate;
+        this.appConfig = appConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        feedSecret = appConfig.getRevocationFeedSecret().getBytes(StandardCharsets.UTF_8);
+        subjectKey = new SecretKeySpec(feedSecret, "HmacSHA256");
+    }
+
+    public boolean isFeedClient(String secret) {
+        return secret != null && MessageDigest.isEqual(feedSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        append(RevocationEntity.TYPE_TOKEN, tokenId, expiresAt);
+    }
+
+    // Revokes every access token issued to the subject so far, tokens issued later stay valid
+    public void revokeSubject(String username) {
+        append(RevocationEntity.TYPE_SUBJECT, subjectHash(username),
+                Instant.now().plusSeconds(appConfig.getAccessTokenExpiration()));
+    }
+
+    public RevocationFeed getRevocations(long since) {
+        long committed = committedSeq();
+        Query query = Query.query(Criteria.where("seq").gt(since).lte(committed))
+                .with(Sort.by("seq"))
+                .limit(PAGE_SIZE + 1);
+        List<RevocationEntity> entries = mongoTemplate.find(query, RevocationEntity.class);
+
+        boolean hasMore = entries.size() > PAGE_SIZE;
+        if (hasMore) {
+            entries = entries.subList(0, PAGE_SIZE);
+        }
+        // Expired entries leave gaps, so a full catch-up moves the caller to the committed number itself.
+        // A version below the caller's tells it the feed was reset and it has to start over
+        long version = hasMore ? entries.get(entries.size() - 1).getSeq() : committed;
+        return new RevocationFeed(version, hasMore, entries.stream().map(RevocationFeed.Revocation::of).toList());
+    }
+
+    // Subjects are published keyed, so the feed cannot be reversed into usernames by hashing guesses
+    public String subjectHash(String username) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(subjectKey);
+            byte[] hash = mac.doFinal(username.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void append(String type, String value, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        long seq = nextSeq(now);
+        try {
+            mongoTemplate.insert(new RevocationEntity(null, seq, type, value, now, expiresAt));
+        } finally {
+            // Also drops numbers left pending by writers that crashed, their entries have expired
+            Document stale = new Document("$or", List.of(
+                    new Document("seq", seq),
+                    new Document("at", new Document("$lt", Date.from(pendingCutoff(now))))));
+            counters().updateOne(Filters.eq("_id", COUNTER_ID), Updates.pull("pending", stale));
+        }
+    }
+
+    // Takes the next number and lists it as pending in the same atomic pipeline update
+    private long nextSeq(Instant now) {
+        Document counter = counters().findOneAndUpdate(Filters.eq("_id", COUNTER_ID), List.of(
+                        new Document("$set", new Document("seq",
+                                new Document("$add", List.of(new Document("$ifNull", List.of("$seq", 0L)), 1L)))),
+                        new Document("$set", new Document("pending", new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$pending", List.of())),
+                                List.of(new Document("seq", "$seq").append("at", Date.from(now)))))))),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return counter.get("seq", Number.class).longValue();
+    }
+
+    // The highest number below which every entry has been written, or has expired
+    private long committedSeq() {
+        Document counter = mongoTemplate.findById(COUNTER_ID, Document.class, COUNTERS);
+        if (counter == null) {
+            return 0;
+        }
+        long committed = counter.get("seq", Number.class).longValue();
+        Date cutoff = Date.from(pendingCutoff(Instant.now()));
+        for (Document pending : counter.getList("pending", Document.class, List.of())) {
+            if (!pending.getDate("at").before(cutoff)) {
+                committed = Math.min(committed, pending.get("seq", Number.class).longValue() - 1);
+            }
+        }
+        return committed;
+    }
+
+    private Instant pendingCutoff(Instant now) {
+        return now.minusSeconds(appConfig.getAccessTokenExpiration());
+    }
+
+    private MongoCollection<Document> counters() {
+        return mongoTemplate.getCollection(COUNTERS);
+    }
+}
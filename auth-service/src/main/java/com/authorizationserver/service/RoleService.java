@@ -1,10 +1,19 @@
 package com.authorizationserver.service;
 
 import com.authorizationserver.entity.Role;
+import com.authorizationserver.entity.UserEntity;
 import com.authorizationserver.exceptions.AuthAPIException;
 import com.authorizationserver.exceptions.ResourceNotFoundException;
 import com.authorizationserver.repository.RoleRepository;
+import com.authorizationserver.security.RoleRegistry;
+import com.authorizationserver.security.UserDetailsCache;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -13,18 +22,54 @@ import java.util.List;
 @Service
 public class RoleService {
 
+    private static final String COUNTERS = "counters";
+    private static final String BITS_COUNTER = "roleBits";
+
     private final RoleRepository roleRepository;
+    private final MongoTemplate mongoTemplate;
+    private final UserDetailsCache userDetailsCache;
+    private final RoleRegistry roleRegistry;
 
     @Autowired
-    public RoleService(RoleRepository roleRepository) {
+    public RoleService(RoleRepository roleRepository, MongoTemplate mongoTemplate, UserDetailsCache userDetailsCache,
+                       RoleRegistry roleRegistry) {
         this.roleRepository = roleRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.userDetailsCache = userDetailsCache;
+        this.roleRegistry = roleRegistry;
     }
 
     public Role createRole(Role role) {
         Role newRole = roleRepository.findById(role.getId())
                 .orElseThrow(() -> new AuthAPIException(HttpStatus.NOT_FOUND, "Role not found"));
 
-        return roleRepository.save(newRole);
+        if (newRole.getBit() == null) {
+            newRole.setBit(nextBit());
+        }
+        Role savedRole = roleRepository.save(newRole);
+        // Cached authorities are derived from roles
+        userDetailsCache.evictAll();
+        roleRegistry.reload();
+        return savedRole;
+    }
+
+    public Role updateRole(String id, Role updatedRole) {
+        Role role = roleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Role", "id", id));
+
+        role.setName(updatedRole.getName());
+        role.setDescription(updatedRole.getDescription());
+        Role savedRole = roleRepository.save(role);
+
+        // Rename the role snapshot embedded in every user holding it
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("roles.roleId").is(id)),
+                new Update().set("roles.$[role].name", savedRole.getName())
+                        .filterArray(Criteria.where("role.roleId").is(id)),
+                UserEntity.class);
+        userDetailsCache.evictAll();
+        roleRegistry.reload();
+        return savedRole;
     }
 
     public List<Role> getAllRoles() {
@@ -41,5 +86,29 @@ public class RoleService {
                .orElseThrow(() -> new ResourceNotFoundException("Role", "id", id));
 
        roleRepository.delete(role);
+       mongoTemplate.updateMulti(
+               Query.query(Criteria.where("roles.roleId").is(id)),
+               new Update().pull("roles", new Document("roleId", id)),
+               UserEntity.class);
+       userDetailsCache.evictAll();
+       roleRegistry.reload();
+    }
+
+    /**
+     * Hands out the next bit of the compact role claim. Bits of deleted roles are not reused, so an
+     * outstanding token can never grant a role created after it was issued. Returns null once all
+     * bits are taken, tokens of users holding such a role carry role names instead.
+     */
+    public Integer nextBit() {
+        Document counter = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(BITS_COUNTER)),
+                new Update().inc("seq", 1), FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class, COUNTERS);
+        int bit = counter.get("seq", Number.class).intValue() - 1;
+        return bit < RoleRegistry.MAX_BITS ? bit : null;
+    }
+
+    // Only for the seed data, which recreates every role
+    public void resetBits() {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(BITS_COUNTER)), COUNTERS);
     }
 }
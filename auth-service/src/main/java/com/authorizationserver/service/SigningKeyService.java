@@ -0,0 +1,133 @@
+package com.authorizationserver.service;
+
+import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.entity.SigningKeyEntity;
+import com.authorizationserver.repository.SigningKeyRepository;
+import com.authorizationserver.security.SigningKeyFactory;
+import com.authorizationserver.security.SigningKeyHolder;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Persists signing keys in MongoDB and rotates them on fixed time slots. Each slot has exactly one
+ * key whose kid is derived from the slot start, so replicas racing to create the same key collapse
+ * onto a single document. The JWKS publishes the key of the next slot ahead of time and keeps
+ * previous keys until every token they signed has expired, so restarts, new replicas and
+ * rotations never invalidate outstanding tokens or force resource servers to refetch on a kid miss.
+ */
+@Service
+@Slf4j
+public class SigningKeyService {
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final SigningKeyHolder signingKeyHolder;
+    private final AppConfig appConfig;
+
+    @Autowired
+    public SigningKeyService(SigningKeyRepository signingKeyRepository,
+                             SigningKeyHolder signingKeyHolder,
+                             AppConfig appConfig) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.signingKeyHolder = signingKeyHolder;
+        this.appConfig = appConfig;
+    }
+
+    @PostConstruct
+    public void init() throws JOSEException, ParseException {
+        refreshKeys();
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.keyRefreshInterval}",
+            initialDelayString = "${application.jwt.keyRefreshInterval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void scheduledRefresh() {
+        try {
+            refreshKeys();
+        } catch (Exception e) {
+            // Keep signing with the keys we already hold until the store is reachable again
+            log.error("Unable to refresh signing keys", e);
+        }
+    }
+
+    public void refreshKeys() throws JOSEException, ParseException {
+        Instant now = Instant.now();
+        Duration rotationPeriod = Duration.ofSeconds(appConfig.getKeyRotationPeriod());
+        Instant currentSlot = Instant.ofEpochSecond(
+                now.getEpochSecond() - Math.floorMod(now.getEpochSecond(), rotationPeriod.getSeconds()));
+        Instant nextSlot = currentSlot.plus(rotationPeriod);
+
+        List<SigningKeyEntity> keys = signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtAsc(now);
+        Set<String> keyIds = keys.stream().map(SigningKeyEntity::getId).collect(Collectors.toSet());
+
+        boolean created = false;
+        for (Instant slot : List.of(currentSlot, nextSlot)) {
+            if (!keyIds.contains(keyId(slot))) {
+                created |= createKey(slot, rotationPeriod);
+            }
+        }
+        if (created) {
+            keys = signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtAsc(now);
+            keyIds = keys.stream().map(SigningKeyEntity::getId).collect(Collectors.toSet());
+        }
+
+        SigningKeyEntity activeKey = keys.stream()
+                .filter(key -> !key.getActivatesAt().isAfter(now))
+                .max(Comparator.comparing(SigningKeyEntity::getActivatesAt))
+                .orElseThrow(() -> new IllegalStateException("No active signing key"));
+
+        if (signingKeyHolder.isCurrent(activeKey.getId(), keyIds)) {
+            return;
+        }
+
+        List<JWK> publishedKeys = new ArrayList<>();
+        JWK activeJwk = null;
+        for (SigningKeyEntity key : keys) {
+            JWK jwk = JWK.parse(key.getJwk());
+            publishedKeys.add(jwk);
+            if (key.getId().equals(activeKey.getId())) {
+                activeJwk = jwk;
+            }
+        }
+        signingKeyHolder.update(activeJwk, publishedKeys);
+        log.info("Signing with key {}, publishing {}", activeKey.getId(), keyIds);
+    }
+
+    private boolean createKey(Instant slot, Duration rotationPeriod) throws JOSEException {
+        JWSAlgorithm algorithm = SigningKeyFactory.parseAlgorithm(appConfig.getSigningAlgorithm());
+        String keyId = keyId(slot);
+        JWK jwk = SigningKeyFactory.generate(algorithm, keyId);
+
+        // A key signs during its slot and must verify until the longest-lived token it signed expires
+        Instant expiresAt = slot.plus(rotationPeriod).plusSeconds(appConfig.getRefreshTokenExpiration());
+        try {
+            signingKeyRepository.insert(new SigningKeyEntity(keyId, algorithm.getName(),
+                    jwk.toJSONString(), slot, expiresAt));
+            log.info("Created signing key {} ({}) active from {}", keyId, algorithm, slot);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Signing key {} was created by another instance", keyId);
+            return true;
+        }
+    }
+
+    private static String keyId(Instant slot) {
+        return "key-" + slot.getEpochSecond();
+    }
+}
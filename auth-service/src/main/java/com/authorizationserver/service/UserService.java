@@ -2,11 +2,13 @@ package com.authorizationserver.service;
 
 import com.authorizationserver.entity.Role;
 import com.authorizationserver.entity.UserEntity;
+import com.authorizationserver.entity.UserRole;
 import com.authorizationserver.exceptions.AuthAPIException;
 import com.authorizationserver.exceptions.ResourceNotFoundException;
 import com.authorizationserver.repository.RoleRepository;
 import com.authorizationserver.repository.UserRepository;
 import com.authorizationserver.request.UserRequest;
+import com.authorizationserver.security.UserDetailsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,12 +23,23 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final RevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
 
     @Autowired
-    public UserService(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(RoleRepository roleRepository,
+                       UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       UserDetailsCache userDetailsCache,
+                       RevocationService revocationService,
+                       RefreshTokenService refreshTokenService) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.revocationService = revocationService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public UserEntity createUser(UserRequest userRequest) {
@@ -47,10 +60,12 @@ public class UserService {
         user.setUsername(userRequest.getUsername());
         user.setEmail(userRequest.getEmail());
         user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
-        user.setRoles(validatedRoles);
+        user.setRoles(validatedRoles.stream().map(UserRole::new).toList());
         user.setCreatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        UserEntity savedUser = userRepository.save(user);
+        userDetailsCache.evict(savedUser.getUsername());
+        return savedUser;
     }
 
     public List<UserEntity> getAllUsers() {
@@ -67,5 +82,9 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
         userRepository.delete(userEntity);
+        userDetailsCache.evict(userEntity.getUsername());
+        // Access tokens already issued to the user are validated locally by resource servers
+        revocationService.revokeSubject(userEntity.getUsername());
+        refreshTokenService.revokeUser(userEntity.getUsername());
     }
 }
@@ -0,0 +1,96 @@
+package com.authorizationserver.benchmark;
+
+import com.authorizationserver.security.SigningKeyFactory;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput for every algorithm supported by {@link SigningKeyFactory}.
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=com.authorizationserver.benchmark.SigningAlgorithmBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JWSHeader header;
+    private JWSSigner signer;
+    private JWSVerifier verifier;
+    private JWTClaimsSet claims;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        JWSAlgorithm jwsAlgorithm = SigningKeyFactory.parseAlgorithm(algorithm);
+        JWK jwk = SigningKeyFactory.generate(jwsAlgorithm, "benchmark");
+
+        header = new JWSHeader.Builder(jwsAlgorithm)
+                .keyID(jwk.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build();
+        signer = SigningKeyFactory.signer(jwk);
+        verifier = SigningKeyFactory.verifier(jwk);
+
+        Instant now = Instant.now();
+        claims = new JWTClaimsSet.Builder()
+                .subject("john_doe")
+                .notBeforeTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(800)))
+                .issueTime(Date.from(now))
+                .claim("roles", List.of("ROLE_DEVELOPER"))
+                .issuer("http://localhost:8083/api/auth")
+                .build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() throws JOSEException {
+        SignedJWT signedJWT = new SignedJWT(header, claims);
+        signedJWT.sign(signer);
+        return signedJWT.serialize();
+    }
+
+    @Benchmark
+    public boolean verify() throws JOSEException, ParseException {
+        return SignedJWT.parse(token).verify(verifier);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SigningAlgorithmBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.authorizationserver.benchmark;
+
+import com.authorizationserver.security.SigningKeyHolder;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens/sec of the old per-call signer path against the cached {@link SigningKeyHolder}.
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=com.authorizationserver.benchmark.TokenSigningBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenSigningBenchmark {
+
+    private KeyPair keyPair;
+    private JWKSet jwkSet;
+    private SigningKeyHolder signingKeyHolder;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        keyPair = keyGen.generateKeyPair();
+        jwkSet = new JWKSet(new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyID(UUID.randomUUID().toString())
+                .build());
+        signingKeyHolder = new SigningKeyHolder();
+        signingKeyHolder.update(jwkSet.getKeys().get(0), jwkSet.getKeys());
+    }
+
+    @Benchmark
+    public String perCallSigner() throws JOSEException {
+        JWK jwk = jwkSet.getKeys()
+                .stream()
+                .findFirst()
+                .orElseThrow();
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(jwk.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build();
+
+        SignedJWT signedJWT = new SignedJWT(header, claims());
+        signedJWT.sign(new RSASSASigner(keyPair.getPrivate()));
+        return signedJWT.serialize();
+    }
+
+    @Benchmark
+    public String cachedSigner() throws JOSEException {
+        SigningKeyHolder.SigningKey signingKey = signingKeyHolder.getActiveKey();
+        SignedJWT signedJWT = new SignedJWT(signingKey.header(), claims());
+        signedJWT.sign(signingKey.signer());
+        return signedJWT.serialize();
+    }
+
+    private static JWTClaimsSet claims() {
+        Instant now = Instant.now();
+        return new JWTClaimsSet.Builder()
+                .subject("john_doe")
+                .notBeforeTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(800)))
+                .issueTime(Date.from(now))
+                .claim("roles", List.of("ROLE_DEVELOPER"))
+                .issuer("http://localhost:8083/api/auth")
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenSigningBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
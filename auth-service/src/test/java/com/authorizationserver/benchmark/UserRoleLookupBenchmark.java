@@ -0,0 +1,152 @@
+package com.authorizationserver.benchmark;
+
+import com.authorizationserver.entity.Role;
+import com.authorizationserver.entity.UserEntity;
+import com.authorizationserver.entity.UserRole;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * findByUsername latency and findAll throughput of users with {@code @DBRef} roles against users
+ * with embedded role snapshots, on a seeded dataset of 100k users. Needs a running MongoDB
+ * ({@code -Dbenchmark.mongo.uri}, defaults to localhost) and drops its own database when done.
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=com.authorizationserver.benchmark.UserRoleLookupBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserRoleLookupBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final String DATABASE = "userRoleBenchmark";
+    private static final String LEGACY_USERS = "users_dbref";
+    private static final String EMBEDDED_USERS = "users_embedded";
+
+    @Data
+    public static class LegacyUser {
+        @Id
+        private String id;
+        private String username;
+        private String email;
+        private String password;
+        private LocalDateTime createdAt;
+        @DBRef
+        private List<Role> roles;
+    }
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+
+    @Setup
+    public void setUp() {
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(mongoClient, DATABASE);
+        mongoTemplate.getDb().drop();
+
+        List<Role> roles = new ArrayList<>(mongoTemplate.insertAll(List.of(
+                new Role(null, "DEVELOPER", "Developer Role"),
+                new Role(null, "EMPLOYER", "Employer Role"),
+                new Role(null, "ADMIN", "Admin Role"))));
+
+        List<LegacyUser> legacyBatch = new ArrayList<>();
+        List<UserEntity> embeddedBatch = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            List<Role> userRoles = i % 10 == 0 ? roles.subList(0, 2) : roles.subList(i % 3, i % 3 + 1);
+
+            LegacyUser legacyUser = new LegacyUser();
+            legacyUser.setUsername("user" + i);
+            legacyUser.setEmail("user" + i + "@example.com");
+            legacyUser.setPassword("{noop}password");
+            legacyUser.setCreatedAt(LocalDateTime.now());
+            legacyUser.setRoles(userRoles);
+            legacyBatch.add(legacyUser);
+
+            embeddedBatch.add(new UserEntity("user" + i, "user" + i + "@example.com", "{noop}password",
+                    userRoles.stream().map(UserRole::new).toList(), LocalDateTime.now()));
+
+            if (legacyBatch.size() == 5000) {
+                mongoTemplate.insert(legacyBatch, LEGACY_USERS);
+                mongoTemplate.insert(embeddedBatch, EMBEDDED_USERS);
+                legacyBatch.clear();
+                embeddedBatch.clear();
+            }
+        }
+
+        mongoTemplate.indexOps(LEGACY_USERS).ensureIndex(new Index("username", Sort.Direction.ASC).unique());
+        mongoTemplate.indexOps(EMBEDDED_USERS).ensureIndex(new Index("username", Sort.Direction.ASC).unique());
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public LegacyUser findByUsernameDbRef() {
+        return mongoTemplate.findOne(byRandomUsername(), LegacyUser.class, LEGACY_USERS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public UserEntity findByUsernameEmbedded() {
+        return mongoTemplate.findOne(byRandomUsername(), UserEntity.class, EMBEDDED_USERS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<LegacyUser> findAllDbRef() {
+        return mongoTemplate.findAll(LegacyUser.class, LEGACY_USERS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<UserEntity> findAllEmbedded() {
+        return mongoTemplate.findAll(UserEntity.class, EMBEDDED_USERS);
+    }
+
+    private static Query byRandomUsername() {
+        return Query.query(where("username").is("user" + ThreadLocalRandom.current().nextInt(USERS)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserRoleLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
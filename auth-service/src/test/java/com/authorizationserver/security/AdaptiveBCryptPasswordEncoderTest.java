@@ -0,0 +1,66 @@
+package com.authorizationserver.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private static final String SALT_AND_HASH = "abcdefghijklmnopqrstuuabcdefghijklmnopqrstuvwxyz01234";
+
+    @ParameterizedTest
+    @CsvSource({
+            "09, true",
+            "10, false",
+            "11, false",
+            "12, false",
+            "13, true",
+    })
+    void rehashesOnlyOutsideTheBand(String cost, boolean upgrade) {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(10, 12);
+
+        assertThat(encoder.upgradeEncoding("$2a$" + cost + "$" + SALT_AND_HASH)).isEqualTo(upgrade);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10, true",
+            "11, false",
+            "12, true",
+    })
+    void aFixedCostRehashesEveryOtherCost(String cost, boolean upgrade) {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(11);
+
+        assertThat(encoder.upgradeEncoding("$2b$" + cost + "$" + SALT_AND_HASH)).isEqualTo(upgrade);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"plaintext", "{noop}secret", "$2a$1$" + SALT_AND_HASH})
+    void leavesWhatIsNotABCryptHashAlone(String encoded) {
+        assertThat(new AdaptiveBCryptPasswordEncoder(10, 12).upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void encodesWithTheUpperCostAndAcceptsTheLowerOne() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(4, 5);
+        String lower = new AdaptiveBCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.encode("secret")).startsWith("$2a$05$");
+        assertThat(encoder.matches("secret", lower)).isTrue();
+        assertThat(encoder.upgradeEncoding(lower)).isFalse();
+    }
+
+    @Test
+    void calibrationNeverGoesBelowTheMinimum() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrated(Duration.ZERO, 4);
+
+        assertThat(encoder.getStrength()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,52 @@
+package com.authorizationserver.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwksDocumentTest {
+
+    private final JwksDocument document = JwksDocument.of(bytes("{\"keys\":[]}"));
+
+    @Test
+    void etagIsAStrongQuotedTagOfTheContent() {
+        assertThat(document.etag()).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+        assertThat(JwksDocument.of(bytes("{\"keys\":[]}")).etag()).isEqualTo(document.etag());
+        assertThat(JwksDocument.of(bytes("{\"keys\":[{}]}")).etag()).isNotEqualTo(document.etag());
+    }
+
+    @Test
+    void matchesItsOwnTagWeakOrStrong() {
+        assertThat(document.matches(document.etag())).isTrue();
+        assertThat(document.matches("W/" + document.etag())).isTrue();
+    }
+
+    @Test
+    void matchesAnyTagOfAList() {
+        assertThat(document.matches("\"stale\", " + document.etag())).isTrue();
+        assertThat(document.matches("*")).isTrue();
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"\"stale\"", "\"stale\", W/\"older\""})
+    void doesNotMatchOtherTags(String ifNoneMatch) {
+        assertThat(document.matches(ifNoneMatch)).isFalse();
+    }
+
+    @Test
+    void doesNotMatchItsTagUnquoted() {
+        String unquoted = document.etag().substring(1, document.etag().length() - 1);
+
+        assertThat(document.matches(unquoted)).isFalse();
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+package com.authorizationserver.service;
+
+import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.entity.RefreshTokenEntity;
+import com.authorizationserver.entity.RevokedFamilyEntity;
+import com.authorizationserver.exceptions.AuthAPIException;
+import com.authorizationserver.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private static final long EXPIRATION = 3600;
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setRefreshTokenExpiration(EXPIRATION);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, mongoTemplate, appConfig);
+        when(refreshTokenRepository.insert(any(RefreshTokenEntity.class))).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void issueStartsANewFamily() {
+        RefreshTokenEntity first = refreshTokenService.issue("alice");
+        RefreshTokenEntity second = refreshTokenService.issue("alice");
+
+        assertThat(first.getFamilyId()).isNotEqualTo(second.getFamilyId());
+        assertThat(first.getUsername()).isEqualTo("alice");
+        assertThat(first.getUsedAt()).isNull();
+        assertThat(first.getExpiresAt()).isAfter(Instant.now().plusSeconds(EXPIRATION - 60));
+    }
+
+    @Test
+    void rotateMarksTheTokenUsedAndIssuesItsSuccessorInTheSameFamily() {
+        givenUnused("token", "family");
+
+        RefreshTokenEntity successor = refreshTokenService.rotate("token", "family", "alice");
+
+        assertThat(successor.getId()).isNotEqualTo("token");
+        assertThat(successor.getFamilyId()).isEqualTo("family");
+        assertThat(successor.getUsername()).isEqualTo("alice");
+        assertThat(successor.getUsedAt()).isNull();
+        verify(mongoTemplate).findAndModify(argThat(query -> query.getQueryObject().get("id").equals("token")
+                        && query.getQueryObject().containsKey("usedAt")),
+                any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(RefreshTokenEntity.class));
+    }
+
+    @Test
+    void reusingAUsedTokenRevokesItsWholeFamily() {
+        when(refreshTokenRepository.findById("token"))
+                .thenReturn(Optional.of(token("token", "family", Instant.now(), null)));
+
+        assertRejected(() -> refreshTokenService.rotate("token", "family", "alice"),
+                "Refresh token has already been used");
+
+        verify(mongoTemplate).upsert(byId("family"), any(UpdateDefinition.class), eq(RevokedFamilyEntity.class));
+        verify(mongoTemplate).updateMulti(argThat(query -> "family".equals(query.getQueryObject().get("familyId"))),
+                any(UpdateDefinition.class), eq(RefreshTokenEntity.class));
+    }
+
+    @Test
+    void aRevokedFamilyIsRejectedWithoutTouchingTheStore() {
+        when(refreshTokenRepository.findById("token"))
+                .thenReturn(Optional.of(token("token", "family", Instant.now(), null)));
+        assertRejected(() -> refreshTokenService.rotate("token", "family", "alice"),
+                "Refresh token has already been used");
+
+        // The successor the attacker or the victim holds is no longer accepted either
+        assertRejected(() -> refreshTokenService.rotate("successor", "family", "alice"),
+                "Refresh token has been revoked");
+
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(RefreshTokenEntity.class));
+    }
+
+    @Test
+    void aRevokedTokenIsRejectedAndItsFamilyRemembered() {
+        when(refreshTokenRepository.findById("token"))
+                .thenReturn(Optional.of(token("token", "family", null, Instant.now())));
+
+        assertRejected(() -> refreshTokenService.rotate("token", "family", "alice"),
+                "Refresh token has been revoked");
+        assertRejected(() -> refreshTokenService.rotate("other", "family", "alice"),
+                "Refresh token has been revoked");
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(UpdateDefinition.class),
+                eq(RevokedFamilyEntity.class));
+    }
+
+    @Test
+    void aSuccessorIssuedWhileTheFamilyWasRevokedIsRevokedToo() {
+        givenUnused("token", "family");
+        when(mongoTemplate.exists(byId("family"), eq(RevokedFamilyEntity.class))).thenReturn(true);
+
+        assertRejected(() -> refreshTokenService.rotate("token", "family", "alice"),
+                "Refresh token has been revoked");
+
+        verify(mongoTemplate).updateFirst(argThat(query -> !"token".equals(query.getQueryObject().get("id"))),
+                any(UpdateDefinition.class), eq(RefreshTokenEntity.class));
+    }
+
+    @Test
+    void unknownTokensAndTokensOfAnotherFamilyAreRejected() {
+        when(refreshTokenRepository.findById("token"))
+                .thenReturn(Optional.of(token("token", "family", Instant.now(), null)));
+
+        assertRejected(() -> refreshTokenService.rotate("missing", "family", "alice"), "Unknown refresh token");
+        assertRejected(() -> refreshTokenService.rotate("token", "other", "alice"), "Unknown refresh token");
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(UpdateDefinition.class),
+                eq(RevokedFamilyEntity.class));
+    }
+
+    @Test
+    void revokeUserRevokesEveryFamilyWithALiveToken() {
+        when(mongoTemplate.findDistinct(argThat(query -> "alice".equals(query.getQueryObject().get("username"))),
+                eq("familyId"), eq(RefreshTokenEntity.class), eq(String.class)))
+                .thenReturn(List.of("laptop", "phone"));
+
+        refreshTokenService.revokeUser("alice");
+
+        verify(mongoTemplate).upsert(byId("laptop"), any(UpdateDefinition.class), eq(RevokedFamilyEntity.class));
+        verify(mongoTemplate).upsert(byId("phone"), any(UpdateDefinition.class), eq(RevokedFamilyEntity.class));
+        assertRejected(() -> refreshTokenService.rotate("token", "phone", "alice"),
+                "Refresh token has been revoked");
+    }
+
+    private void givenUnused(String tokenId, String familyId) {
+        when(mongoTemplate.findAndModify(argThat(query -> tokenId.equals(query.getQueryObject().get("id"))),
+                any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(RefreshTokenEntity.class)))
+                .thenReturn(token(tokenId, familyId, Instant.now(), null));
+    }
+
+    private static RefreshTokenEntity token(String id, String familyId, Instant usedAt, Instant revokedAt) {
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        return new RefreshTokenEntity(id, familyId, "alice", issuedAt, usedAt, revokedAt,
+                issuedAt.plusSeconds(EXPIRATION));
+    }
+
+    private static Query byId(String id) {
+        return argThat(query -> id.equals(query.getQueryObject().get("id")));
+    }
+
+    private static void assertRejected(Runnable rotation, String message) {
+        assertThatThrownBy(rotation::run)
+                .isInstanceOf(AuthAPIException.class)
+                .hasMessage(message)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,174 @@
+package com.authorizationserver.service;
+
+import com.authorizationserver.config.AppConfig;
+import com.authorizationserver.entity.RevocationEntity;
+import com.authorizationserver.response.RevocationFeed;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationServiceTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION = 900;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> counters = mock(MongoCollection.class);
+    private RevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new RevocationService(mongoTemplate, appConfig("feed-secret"));
+        revocationService.init();
+        when(mongoTemplate.getCollection("counters")).thenReturn(counters);
+    }
+
+    @Test
+    void anEmptyFeedIsAtVersionZero() {
+        RevocationFeed feed = revocationService.getRevocations(0);
+
+        assertThat(feed.version()).isZero();
+        assertThat(feed.hasMore()).isFalse();
+        assertThat(feed.revocations()).isEmpty();
+    }
+
+    @Test
+    void servesEverythingUpToTheLastNumberWhenNothingIsPending() {
+        givenCounter(7);
+        when(mongoTemplate.find(any(Query.class), eq(RevocationEntity.class))).thenReturn(entries(3, 6));
+
+        RevocationFeed feed = revocationService.getRevocations(2);
+
+        assertThat(servedRange()).isEqualTo(new Document("$gt", 2L).append("$lte", 7L));
+        // Entry 7 has expired, the caller still moves past it
+        assertThat(feed.version()).isEqualTo(7);
+        assertThat(feed.revocations()).extracting(RevocationFeed.Revocation::seq).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void stopsBeforeTheOldestNumberStillBeingWritten() {
+        Instant now = Instant.now();
+        givenCounter(7, pending(6, now), pending(5, now.minusSeconds(1)));
+
+        RevocationFeed feed = revocationService.getRevocations(2);
+
+        assertThat(servedRange()).isEqualTo(new Document("$gt", 2L).append("$lte", 4L));
+        assertThat(feed.version()).isEqualTo(4);
+    }
+
+    @Test
+    void ignoresNumbersLeftPendingLongerThanAnAccessTokenLifetime() {
+        Instant now = Instant.now();
+        givenCounter(7, pending(5, now.minusSeconds(ACCESS_TOKEN_EXPIRATION + 60)));
+
+        assertThat(revocationService.getRevocations(2).version()).isEqualTo(7);
+    }
+
+    @Test
+    void pagesStopAtTheLastServedEntry() {
+        givenCounter(5000);
+        when(mongoTemplate.find(any(Query.class), eq(RevocationEntity.class))).thenReturn(entries(1, 1001));
+
+        RevocationFeed feed = revocationService.getRevocations(0);
+
+        assertThat(feed.hasMore()).isTrue();
+        assertThat(feed.revocations()).hasSize(1000);
+        assertThat(feed.version()).isEqualTo(1000);
+    }
+
+    @Test
+    void aFailedInsertStillReleasesItsNumber() {
+        when(counters.findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class)))
+                .thenReturn(new Document("_id", "revocations").append("seq", 3L));
+        when(mongoTemplate.insert(any(RevocationEntity.class)))
+                .thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        assertThatThrownBy(() -> revocationService.revokeToken("jti", Instant.now().plusSeconds(60)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        ArgumentCaptor<Bson> pull = ArgumentCaptor.forClass(Bson.class);
+        verify(counters).updateOne(any(Bson.class), pull.capture());
+        assertThat(pull.getValue().toBsonDocument().toJson()).contains("\"pending\"").contains("\"seq\": 3");
+    }
+
+    @Test
+    void anAlreadyExpiredTokenIsNotPublished() {
+        revocationService.revokeToken("jti", Instant.now().minusSeconds(1));
+
+        verify(mongoTemplate, never()).insert(any(RevocationEntity.class));
+        verify(counters, never()).findOneAndUpdate(any(Bson.class), anyList(), any(FindOneAndUpdateOptions.class));
+    }
+
+    @Test
+    void subjectsArePublishedAsAKeyedHash() {
+        String hash = revocationService.subjectHash("alice");
+
+        assertThat(hash).isEqualTo(revocationService.subjectHash("alice"))
+                .isNotEqualTo(revocationService.subjectHash("bob"))
+                .doesNotContain("alice");
+        RevocationService otherKey = new RevocationService(mongoTemplate, appConfig("other-secret"));
+        otherKey.init();
+        assertThat(otherKey.subjectHash("alice")).isNotEqualTo(hash);
+    }
+
+    @Test
+    void onlyTheSharedSecretOpensTheFeed() {
+        assertThat(revocationService.isFeedClient("feed-secret")).isTrue();
+        assertThat(revocationService.isFeedClient("feed-secret ")).isFalse();
+        assertThat(revocationService.isFeedClient("")).isFalse();
+        assertThat(revocationService.isFeedClient(null)).isFalse();
+    }
+
+    private void givenCounter(long seq, Document... pending) {
+        when(mongoTemplate.findById("revocations", Document.class, "counters"))
+                .thenReturn(new Document("_id", "revocations").append("seq", seq).append("pending", List.of(pending)));
+    }
+
+    private static Document pending(long seq, Instant at) {
+        return new Document("seq", seq).append("at", Date.from(at));
+    }
+
+    private Document servedRange() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(RevocationEntity.class));
+        return query.getValue().getQueryObject().get("seq", Document.class);
+    }
+
+    private static List<RevocationEntity> entries(long first, long last) {
+        Instant now = Instant.now();
+        List<RevocationEntity> entries = new ArrayList<>();
+        LongStream.rangeClosed(first, last).forEach(seq -> entries.add(new RevocationEntity(null, seq,
+                RevocationEntity.TYPE_TOKEN, "jti-" + seq, now, now.plusSeconds(ACCESS_TOKEN_EXPIRATION))));
+        return entries;
+    }
+
+    private static AppConfig appConfig(String feedSecret) {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setAccessTokenExpiration(ACCESS_TOKEN_EXPIRATION);
+        appConfig.setRevocationFeedSecret(feedSecret);
+        return appConfig;
+    }
+}
@@ -1,7 +1,9 @@
 package com.spring.mongo.jobs;
 
 import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
 import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.repository.CompanyRepository;
 import com.spring.mongo.jobs.repository.JobRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
@@ -11,12 +13,14 @@ import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
 @SpringBootApplication
+@EnableScheduling
 public class JobApplication {
 
     public static void main(String[] args) {
@@ -32,10 +36,11 @@ public class JobApplication {
     }
 
     @Bean
-    CommandLineRunner commandLineRunner(JobRepository jobRepository) {
+    CommandLineRunner commandLineRunner(JobRepository jobRepository, CompanyRepository companyRepository) {
         return args -> {
 
             jobRepository.deleteAll();
+            companyRepository.deleteAll();
 
             List<Job> jobs = Arrays.asList(
                     new Job("1", "Senior Vue Dev", "Full-Time", "Boston, MA",
@@ -89,6 +94,12 @@ public class JobApplication {
                                     "555-123-4567"))
             );
 
+            // Every seed job has a company of its own
+            for (Job job : jobs) {
+                CompanyEntity company = CompanyEntity.of(job.getCompany());
+                company.setOpenJobs(1L);
+                job.referTo(companyRepository.save(company));
+            }
             jobRepository.saveAll(jobs);
         };
     }
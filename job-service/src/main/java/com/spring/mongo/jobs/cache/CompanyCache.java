@@ -0,0 +1,66 @@
+package com.spring.mongo.jobs.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.mongo.jobs.config.AppConfig;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Companies by id, used to render the company of every job in a page with at most one query for the
+ * ones not seen yet, and by name, so posting a job for a known employer does not touch the companies
+ * collection. Entries expire after the job cache TTL; updates made through this replica evict them
+ * at once, updates made through another one are picked up on expiry.
+ */
+@Component
+@Profile("!reactive")
+public class CompanyCache {
+
+    private final Cache<String, CompanyEntity> byId;
+    private final Cache<String, CompanyEntity> byName;
+
+    @Autowired
+    public CompanyCache(AppConfig appConfig, MeterRegistry meterRegistry) {
+        Duration ttl = Duration.ofSeconds(appConfig.getJobCacheTtl());
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(appConfig.getCompanyCacheMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(appConfig.getCompanyCacheMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "companies");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "companiesByName");
+    }
+
+    public CompanyEntity get(String id, Function<String, CompanyEntity> loader) {
+        return byId.get(id, loader);
+    }
+
+    public Map<String, CompanyEntity> getAll(Set<String> ids,
+                                             Function<Set<? extends String>, Map<String, CompanyEntity>> loader) {
+        return byId.getAll(ids, loader);
+    }
+
+    public CompanyEntity getByName(String name, Function<String, CompanyEntity> loader) {
+        return byName.get(name, loader);
+    }
+
+    public void evict(String id) {
+        byId.invalidate(id);
+        // The name may be the one that changed
+        byName.invalidateAll();
+    }
+}
@@ -0,0 +1,187 @@
+package com.spring.mongo.jobs.cache;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.repository.JobRepository;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Job counts by type, location and company over the whole collection, so the unfiltered facets are
+ * answered from memory. Jobs created, updated and deleted through this replica are counted as they
+ * are written, an update moving the job from the buckets of its previous values to those of its new
+ * ones. The counts are also recounted on a fixed schedule, which picks up writes made by other
+ * replicas.
+ * <p>
+ * A recount may or may not see a write that is in flight while it runs, so counting that write
+ * afterwards could count it twice. Writers therefore take the recount generation before writing,
+ * and a write that overlapped a recount marks the counts stale instead; the next read recounts.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class FacetCounter {
+
+    private record Counts(LongAdder total, Map<String, LongAdder> type, Map<String, LongAdder> location,
+                          Map<String, LongAdder> company) {
+
+        static Counts of(JobFacets facets) {
+            LongAdder total = new LongAdder();
+            total.add(facets.total());
+            return new Counts(total, adders(facets.type()), adders(facets.location()), adders(facets.company()));
+        }
+
+        private static Map<String, LongAdder> adders(List<JobFacets.Bucket> buckets) {
+            Map<String, LongAdder> adders = new ConcurrentHashMap<>();
+            for (JobFacets.Bucket bucket : buckets) {
+                adders.computeIfAbsent(bucket.value(), value -> new LongAdder()).add(bucket.count());
+            }
+            return adders;
+        }
+    }
+
+    private final JobRepository jobRepository;
+    // Moves when a recount starts and again when it ends, see generation()
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Counts counts;
+    private volatile boolean stale = true;
+    private volatile boolean reconciling;
+
+    @Autowired
+    public FacetCounter(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    public JobFacets facets(int limit) {
+        if (stale) {
+            reconcileIfStale();
+        }
+        Counts current = counts;
+        return new JobFacets(current.total().sum(), top(current.type(), limit), top(current.location(), limit),
+                top(current.company(), limit));
+    }
+
+    // Taken before writing a job and passed along with it once written
+    public long generation() {
+        return generation.get();
+    }
+
+    public void added(long generation, Job job) {
+        apply(generation, job, 1);
+    }
+
+    public void removed(long generation, Job job) {
+        apply(generation, job, -1);
+    }
+
+    public void updated(long generation, Job before, Job after) {
+        Counts current = current(generation);
+        if (current == null) {
+            return;
+        }
+        move(current.type(), before.getType(), after.getType());
+        move(current.location(), before.getLocation(), after.getLocation());
+        move(current.company(), companyName(before), companyName(after));
+    }
+
+    public void invalidate() {
+        stale = true;
+    }
+
+    @Scheduled(fixedDelayString = "${application.jobs.facetReconcileInterval}",
+            initialDelayString = "${application.jobs.facetReconcileInterval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // Keep serving the counts we hold, the next run or read retries
+            log.error("Unable to reconcile job facet counts", e);
+        }
+    }
+
+    // Readers that queued up behind a recount use its result rather than recounting again
+    private synchronized void reconcileIfStale() {
+        if (stale) {
+            reconcile();
+        }
+    }
+
+    public synchronized void reconcile() {
+        stale = false;
+        reconciling = true;
+        generation.incrementAndGet();
+        try {
+            counts = Counts.of(jobRepository.facetJobs(new JobFilter(), 0));
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        } finally {
+            reconciling = false;
+            generation.incrementAndGet();
+        }
+    }
+
+    private void apply(long generation, Job job, int delta) {
+        Counts current = current(generation);
+        if (current == null) {
+            return;
+        }
+        current.total().add(delta);
+        add(current.type(), job.getType(), delta);
+        add(current.location(), job.getLocation(), delta);
+        add(current.company(), companyName(job), delta);
+    }
+
+    // The counts a write can be applied to, or null after marking them stale
+    private Counts current(long writeGeneration) {
+        Counts current = counts;
+        if (current == null || reconciling || generation.get() != writeGeneration) {
+            // A recount overlapped the write and may or may not include it
+            stale = true;
+            return null;
+        }
+        return current;
+    }
+
+    private static String companyName(Job job) {
+        return job.getCompany() == null ? null : job.getCompany().getName();
+    }
+
+    private static void move(Map<String, LongAdder> buckets, String from, String to) {
+        if (!Objects.equals(from, to)) {
+            add(buckets, from, -1);
+            add(buckets, to, 1);
+        }
+    }
+
+    private static void add(Map<String, LongAdder> buckets, String value, int delta) {
+        if (value != null) {
+            buckets.computeIfAbsent(value, v -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static List<JobFacets.Bucket> top(Map<String, LongAdder> buckets, int limit) {
+        return buckets.entrySet().stream()
+                .map(entry -> new JobFacets.Bucket(entry.getKey(), entry.getValue().sum()))
+                .filter(bucket -> bucket.count() > 0)
+                .sorted(Comparator.comparingLong(JobFacets.Bucket::count).reversed()
+                        .thenComparing(JobFacets.Bucket::value))
+                .limit(limit)
+                .toList();
+    }
+}
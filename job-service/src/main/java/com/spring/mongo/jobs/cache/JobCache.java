@@ -0,0 +1,100 @@
+package com.spring.mongo.jobs.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.mongo.jobs.config.AppConfig;
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import com.spring.mongo.jobs.response.JobPage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process caches for jobs by id, for the first page of each listing and for the facets
+ * of each filter. Entries expire after the configured TTL at the latest; writes made by this or any
+ * other replica evict them earlier through {@link JobChangeListener}. Any change to a job drops every
+ * cached first page and facet count, since a single insert, update or delete can reorder or filter
+ * into any of them.
+ */
+@Component
+@Profile("!reactive")
+public class JobCache {
+
+    private record FirstPageKey(JobFilter filter, int size, Sort.Direction direction) {
+    }
+
+    private record FacetsKey(JobFilter filter, int limit) {
+    }
+
+    private final Cache<String, Job> jobs;
+    private final Cache<FirstPageKey, JobPage> firstPages;
+    private final Cache<FacetsKey, JobFacets> facets;
+
+    @Autowired
+    public JobCache(AppConfig appConfig, MeterRegistry meterRegistry) {
+        Duration ttl = Duration.ofSeconds(appConfig.getJobCacheTtl());
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(appConfig.getJobCacheMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.firstPages = Caffeine.newBuilder()
+                .maximumSize(appConfig.getPageCacheMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.facets = Caffeine.newBuilder()
+                .maximumSize(appConfig.getPageCacheMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        monitor(meterRegistry, jobs, "jobs");
+        monitor(meterRegistry, firstPages, "jobPages");
+        monitor(meterRegistry, facets, "jobFacets");
+    }
+
+    public Job getJob(String id, Function<String, Job> loader) {
+        return jobs.get(id, loader);
+    }
+
+    public JobPage getFirstPage(JobFilter filter, int size, Sort.Direction direction, Supplier<JobPage> loader) {
+        return firstPages.get(new FirstPageKey(filter, size, direction), key -> loader.get());
+    }
+
+    public JobFacets getFacets(JobFilter filter, int limit, Supplier<JobFacets> loader) {
+        return facets.get(new FacetsKey(filter, limit), key -> loader.get());
+    }
+
+    public void evict(String id) {
+        jobs.invalidate(id);
+        evictPages();
+    }
+
+    public void evictPages() {
+        firstPages.invalidateAll();
+        facets.invalidateAll();
+    }
+
+    public void evictAll() {
+        jobs.invalidateAll();
+        evictPages();
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Share of lookups served from the cache")
+                .register(meterRegistry);
+    }
+}
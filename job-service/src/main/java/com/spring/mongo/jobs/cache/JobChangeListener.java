@@ -0,0 +1,141 @@
+package com.spring.mongo.jobs.cache;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.spring.mongo.jobs.entity.Job;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link JobCache} coherent across replicas. On a replica set (or behind mongos) it follows a
+ * change stream on the {@code jobs} collection and evicts exactly the job that changed. A standalone
+ * server has no change streams, so it falls back to polling a cheap fingerprint of the collection
+ * (estimated count plus the latest {@code lastModifiedAt}) and drops everything when it moves.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class JobChangeListener {
+
+    private record Fingerprint(long count, Instant lastModifiedAt) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final JobCache jobCache;
+
+    private MessageListenerContainer container;
+    private volatile Subscription subscription;
+    private volatile Fingerprint fingerprint;
+
+    @Autowired
+    public JobChangeListener(MongoTemplate mongoTemplate, JobCache jobCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobCache = jobCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (supportsChangeStreams()) {
+            container = new DefaultMessageListenerContainer(mongoTemplate);
+            container.start();
+            subscribe();
+            log.info("Invalidating job caches from the change stream on {}", collectionName());
+        } else {
+            fingerprint = fingerprint();
+            log.info("Change streams unavailable on a standalone server, polling {} for changes", collectionName());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.jobs.changePollInterval}",
+            initialDelayString = "${application.jobs.changePollInterval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void checkForChanges() {
+        try {
+            if (container != null) {
+                if (!subscription.isActive()) {
+                    // Changes may have been missed while the stream was down
+                    log.warn("Job change stream stopped, resubscribing");
+                    jobCache.evictAll();
+                    subscribe();
+                }
+                return;
+            }
+
+            Fingerprint current = fingerprint();
+            if (!current.equals(fingerprint)) {
+                fingerprint = current;
+                jobCache.evictAll();
+            }
+        } catch (Exception e) {
+            log.error("Unable to check jobs for changes", e);
+        }
+    }
+
+    private void subscribe() {
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.<Document>builder(this::onChange)
+                .collection(collectionName())
+                .build();
+        subscription = container.register(request, Document.class, e -> {
+            log.error("Job change stream failed", e);
+            jobCache.evictAll();
+        });
+    }
+
+    private void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> event = message.getRaw();
+        switch (event.getOperationType()) {
+            case INSERT -> jobCache.evictPages();
+            case UPDATE, REPLACE, DELETE -> jobCache.evict(jobId(event.getDocumentKey()));
+            default -> jobCache.evictAll();
+        }
+    }
+
+    private static String jobId(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private boolean supportsChangeStreams() {
+        Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+        return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+    }
+
+    private Fingerprint fingerprint() {
+        Query latest = new Query().with(Sort.by(Sort.Direction.DESC, "lastModifiedAt")).limit(1);
+        latest.fields().include("lastModifiedAt");
+        Job job = mongoTemplate.findOne(latest, Job.class);
+        return new Fingerprint(mongoTemplate.estimatedCount(Job.class), job == null ? null : job.getLastModifiedAt());
+    }
+
+    private String collectionName() {
+        return mongoTemplate.getCollectionName(Job.class);
+    }
+}
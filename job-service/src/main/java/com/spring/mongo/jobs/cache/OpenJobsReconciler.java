@@ -0,0 +1,41 @@
+package com.spring.mongo.jobs.cache;
+
+import com.spring.mongo.jobs.repository.CompanyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recounts the openJobs counter cache of the companies on a fixed schedule. Job writes move the
+ * counter with a separate write after the job itself, so a replica failing in between leaves it off,
+ * and this puts it back. Runs in both modes, since both move the counter.
+ */
+@Component
+@Slf4j
+public class OpenJobsReconciler {
+
+    private final CompanyRepository companyRepository;
+
+    @Autowired
+    public OpenJobsReconciler(CompanyRepository companyRepository) {
+        this.companyRepository = companyRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${application.jobs.openJobsReconcileInterval}",
+            initialDelayString = "${application.jobs.openJobsReconcileInterval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void reconcile() {
+        try {
+            long corrected = companyRepository.recountJobs();
+            if (corrected > 0) {
+                log.info("Corrected the open jobs of {} companies", corrected);
+            }
+        } catch (Exception e) {
+            // The counters stay as they are until the next run
+            log.error("Unable to recount the open jobs of companies", e);
+        }
+    }
+}
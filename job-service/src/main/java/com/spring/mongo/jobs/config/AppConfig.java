@@ -0,0 +1,71 @@
+package com.spring.mongo.jobs.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@RefreshScope
+@Data
+public class AppConfig {
+
+    @Value("${spring.security.oauth2.resource-server.jwt.issuer-uri}")
+    private String jwtIssuerUri;
+
+    @Value("${spring.security.oauth2.resource-server.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${application.jwt.jwsAlgorithms}")
+    private List<String> jwsAlgorithms;
+
+    @Value("${application.jwt.jwksCacheTtl}")
+    private Long jwksCacheTtl;
+
+    @Value("${application.jwt.jwksRefreshAhead}")
+    private Long jwksRefreshAhead;
+
+    @Value("${application.jwt.jwksTimeout}")
+    private Long jwksTimeout;
+
+    @Value("${application.jwt.jwksRateLimit}")
+    private Long jwksRateLimit;
+
+    @Value("${application.jwt.jwksOutageTolerance}")
+    private Long jwksOutageTolerance;
+
+    @Value("${application.jwt.cacheMaximumSize}")
+    private Long jwtCacheMaximumSize;
+
+    @Value("${application.jwt.cacheMaximumTtl}")
+    private Long jwtCacheMaximumTtl;
+
+    @Value("${application.jwt.revocationFeedUri}")
+    private String revocationFeedUri;
+
+    @Value("${application.jwt.revocationFeedSecret}")
+    private String revocationFeedSecret;
+
+    @Value("${application.jwt.roleRegistryUri}")
+    private String roleRegistryUri;
+
+    @Value("${application.jobs.asyncRequestTimeout}")
+    private Long asyncRequestTimeout;
+
+    @Value("${application.jobs.bulkBatchSize}")
+    private Integer bulkBatchSize;
+
+    @Value("${application.jobs.cacheMaximumSize}")
+    private Long jobCacheMaximumSize;
+
+    @Value("${application.jobs.pageCacheMaximumSize}")
+    private Long pageCacheMaximumSize;
+
+    @Value("${application.jobs.cacheTtl}")
+    private Long jobCacheTtl;
+
+    @Value("${application.jobs.companyCacheMaximumSize}")
+    private Long companyCacheMaximumSize;
+}
@@ -1,37 +1,105 @@
 package com.spring.mongo.jobs.controller;
 
 import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.BulkJobResponse;
+import com.spring.mongo.jobs.response.JobFacets;
+import com.spring.mongo.jobs.response.JobPage;
 import com.spring.mongo.jobs.service.JobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/jobs")
+@Profile("!reactive")
 @Tag(name = "Job Controller", description = "APIs for managing jobs")
 public class JobController {
 
     @Autowired
     private JobService jobService;
 
-    @Operation(summary = "Get all jobs", description = "Retrieve a list of all available jobs")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+    @Operation(summary = "Get jobs", description = "Retrieve a page of jobs sorted by posting date, optionally " +
+            "filtered by type, location, company, posting date range and annual salary range (salaryMin, salaryMax, " +
+            "currency). Pass the returned nextCursor to fetch the following page without offset scanning. Jobs carry " +
+            "their summary fields unless fields lists others, e.g. fields=title,description,company or fields=*")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page")
     @GetMapping
-    public List<Job> getAllJobs() {
-        return jobService.getAllJobs();
+    public JobPage getAllJobs(@ParameterObject JobFilter filter,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(defaultValue = "20") int size,
+                              @RequestParam(defaultValue = "desc") String direction,
+                              @RequestParam(required = false) String cursor,
+                              @RequestParam(required = false) String fields) {
+        return jobService.getJobs(filter, page, size, direction, cursor, fields);
     }
 
-    @Operation(summary = "Get job by ID", description = "Retrieve a job by its ID")
+    @Operation(summary = "Search jobs", description = "Full-text search over title, company, location and " +
+            "description, ranked by relevance. Descriptions are only returned when includeDescription is set")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved search results")
+    @GetMapping("/search")
+    public JobPage searchJobs(@RequestParam String q,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(defaultValue = "20") int size,
+                              @RequestParam(defaultValue = "false") boolean includeDescription) {
+        return jobService.searchJobs(q, includeDescription, page, size);
+    }
+
+    @Operation(summary = "Get job facets", description = "Number of jobs per type, location and company, " +
+            "honoring the same filters as the listing. Each facet returns its limit largest buckets")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved facets")
+    @GetMapping("/facets")
+    public JobFacets getFacets(@ParameterObject JobFilter filter,
+                              @RequestParam(defaultValue = "20") int limit) {
+        return jobService.getFacets(filter, limit);
+    }
+
+    @Operation(summary = "Get jobs near a point", description = "Jobs within radiusKm of lat/lon, nearest " +
+            "first and newest first within each city, with their distance in km. Pass the returned nextCursor " +
+            "to fetch the following page. Jobs carry their summary fields unless fields lists others")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved nearby jobs")
+    @GetMapping("/near")
+    public JobPage getJobsNear(@RequestParam double lat,
+                               @RequestParam double lon,
+                               @RequestParam(defaultValue = "50") double radiusKm,
+                               @RequestParam(defaultValue = "20") int size,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(required = false) String fields) {
+        return jobService.getJobsNear(lat, lon, radiusKm, size, cursor, fields);
+    }
+
+    @Operation(summary = "Export jobs", description = "Stream every job as newline-delimited JSON in posting " +
+            "order, optionally only those posted on or after the since date for incremental exports")
+    @ApiResponse(responseCode = "200", description = "Successfully streamed jobs")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportJobs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        StreamingResponseBody body = outputStream -> jobService.exportJobs(since, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Get job by ID", description = "Retrieve a job by its ID, only the listed fields " +
+            "when fields is given")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved job")
     @GetMapping("/{id}")
-    public ResponseEntity<Job> getJobById(@PathVariable String id) {
-        Job job = jobService.getJobById(id);
+    public ResponseEntity<Job> getJobById(@PathVariable String id,
+                                          @RequestParam(required = false) String fields) {
+        Job job = jobService.getJobById(id, fields);
         return ResponseEntity.ok(job);
     }
 
@@ -43,11 +111,35 @@ public class JobController {
         return jobService.createJob(job);
     }
 
-    @Operation(summary = "Update a job", description = "Update an existing job by ID")
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Create jobs in bulk", description = "Create many job postings from a JSON array or an " +
+            "NDJSON stream (EMPLOYER role required). Each item is validated and reported individually, valid items " +
+            "are written in unordered batches")
+    @ApiResponse(responseCode = "200", description = "Processed every item, see the per-item results")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkJobResponse createJobs(InputStream body) throws IOException {
+        return jobService.createJobs(body);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Update a job", description = "Replace the editable fields of an existing job by ID. " +
+            "When the body carries a version the update is rejected if the job has changed since (EMPLOYER role required)")
     @ApiResponse(responseCode = "200", description = "Successfully updated job")
+    @ApiResponse(responseCode = "409", description = "The job was modified by someone else")
     @PutMapping("/{id}")
     public ResponseEntity<Job> updateJob(@PathVariable String id, @RequestBody Job job) {
-        Job updatedJob = jobService.updateJob(id, job);
+        Job updatedJob = jobService.updateJob(id, job, false);
+        return ResponseEntity.ok(updatedJob);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Partially update a job", description = "Change only the fields present in the body. " +
+            "When the body carries a version the update is rejected if the job has changed since (EMPLOYER role required)")
+    @ApiResponse(responseCode = "200", description = "Successfully updated job")
+    @ApiResponse(responseCode = "409", description = "The job was modified by someone else")
+    @PatchMapping("/{id}")
+    public ResponseEntity<Job> patchJob(@PathVariable String id, @RequestBody Job job) {
+        Job updatedJob = jobService.updateJob(id, job, true);
         return ResponseEntity.ok(updatedJob);
     }
 
@@ -0,0 +1,59 @@
+package com.spring.mongo.jobs.controller;
+
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import com.spring.mongo.jobs.response.JobPage;
+import com.spring.mongo.jobs.service.ReactiveCompanyService;
+import com.spring.mongo.jobs.service.ReactiveJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/companies")
+@Profile("reactive")
+@Tag(name = "Company Controller", description = "APIs for managing companies")
+public class ReactiveCompanyController {
+
+    @Autowired
+    private ReactiveCompanyService companyService;
+
+    @Autowired
+    private ReactiveJobService jobService;
+
+    @Operation(summary = "Get company by ID", description = "Retrieve a company with its number of open jobs")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved company")
+    @GetMapping("/{id}")
+    public Mono<CompanyEntity> getCompanyById(@PathVariable String id) {
+        return companyService.getCompany(id);
+    }
+
+    @Operation(summary = "Get company jobs", description = "Retrieve a page of the company's jobs sorted by " +
+            "posting date. Pass the returned nextCursor to fetch the following page. Jobs carry their summary " +
+            "fields unless fields lists others")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page")
+    @GetMapping("/{id}/jobs")
+    public Mono<JobPage> getCompanyJobs(@PathVariable String id,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "20") int size,
+                                        @RequestParam(defaultValue = "desc") String direction,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) String fields) {
+        return jobService.getCompanyJobs(id, page, size, direction, cursor, fields);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Update a company", description = "Replace the name and details of a company, every " +
+            "job of the company shows the change (EMPLOYER role required)")
+    @ApiResponse(responseCode = "200", description = "Successfully updated company")
+    @ApiResponse(responseCode = "409", description = "Another company already has this name")
+    @PutMapping("/{id}")
+    public Mono<CompanyEntity> updateCompany(@PathVariable String id, @RequestBody Company company) {
+        return companyService.updateCompany(id, company);
+    }
+}
@@ -0,0 +1,133 @@
+package com.spring.mongo.jobs.controller;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import com.spring.mongo.jobs.response.JobPage;
+import com.spring.mongo.jobs.service.ReactiveJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/jobs")
+@Profile("reactive")
+@Tag(name = "Job Controller", description = "APIs for managing jobs")
+public class ReactiveJobController {
+
+    @Autowired
+    private ReactiveJobService jobService;
+
+    @Operation(summary = "Get jobs", description = "Retrieve a page of jobs sorted by posting date, optionally " +
+            "filtered by type, location, company, posting date range and annual salary range (salaryMin, salaryMax, " +
+            "currency). Pass the returned nextCursor to fetch the following page without offset scanning. Jobs carry " +
+            "their summary fields unless fields lists others, e.g. fields=title,description,company or fields=*")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved page")
+    @GetMapping
+    public Mono<JobPage> getAllJobs(@ParameterObject JobFilter filter,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @RequestParam(defaultValue = "desc") String direction,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) String fields) {
+        return jobService.getJobs(filter, page, size, direction, cursor, fields);
+    }
+
+    @Operation(summary = "Search jobs", description = "Full-text search over title, company, location and " +
+            "description, ranked by relevance. Descriptions are only returned when includeDescription is set")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved search results")
+    @GetMapping("/search")
+    public Mono<JobPage> searchJobs(@RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @RequestParam(defaultValue = "false") boolean includeDescription) {
+        return jobService.searchJobs(q, includeDescription, page, size);
+    }
+
+    @Operation(summary = "Get job facets", description = "Number of jobs per type, location and company, " +
+            "honoring the same filters as the listing. Each facet returns its limit largest buckets")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved facets")
+    @GetMapping("/facets")
+    public Mono<JobFacets> getFacets(@ParameterObject JobFilter filter,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return jobService.getFacets(filter, limit);
+    }
+
+    @Operation(summary = "Get jobs near a point", description = "Jobs within radiusKm of lat/lon, nearest " +
+            "first and newest first within each city, with their distance in km. Pass the returned nextCursor " +
+            "to fetch the following page. Jobs carry their summary fields unless fields lists others")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved nearby jobs")
+    @GetMapping("/near")
+    public Mono<JobPage> getJobsNear(@RequestParam double lat,
+                                     @RequestParam double lon,
+                                     @RequestParam(defaultValue = "50") double radiusKm,
+                                     @RequestParam(defaultValue = "20") int size,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) String fields) {
+        return jobService.getJobsNear(lat, lon, radiusKm, size, cursor, fields);
+    }
+
+    @Operation(summary = "Export jobs", description = "Stream every job as newline-delimited JSON in posting " +
+            "order, optionally only those posted on or after the since date for incremental exports")
+    @ApiResponse(responseCode = "200", description = "Successfully streamed jobs")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Job> exportJobs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        return jobService.exportJobs(since);
+    }
+
+    @Operation(summary = "Get job by ID", description = "Retrieve a job by its ID, only the listed fields " +
+            "when fields is given")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved job")
+    @GetMapping("/{id}")
+    public Mono<Job> getJobById(@PathVariable String id, @RequestParam(required = false) String fields) {
+        return jobService.getJobById(id, fields);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Create a new job", description = "Create a new job posting (EMPLOYER role required)")
+    @ApiResponse(responseCode = "201", description = "Successfully created job")
+    @PostMapping
+    public Mono<Job> createJob(@RequestBody Job job) {
+        return jobService.createJob(job);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Update a job", description = "Replace the editable fields of an existing job by ID. " +
+            "When the body carries a version the update is rejected if the job has changed since (EMPLOYER role required)")
+    @ApiResponse(responseCode = "200", description = "Successfully updated job")
+    @ApiResponse(responseCode = "409", description = "The job was modified by someone else")
+    @PutMapping("/{id}")
+    public Mono<Job> updateJob(@PathVariable String id, @RequestBody Job job) {
+        return jobService.updateJob(id, job, false);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Partially update a job", description = "Change only the fields present in the body. " +
+            "When the body carries a version the update is rejected if the job has changed since (EMPLOYER role required)")
+    @ApiResponse(responseCode = "200", description = "Successfully updated job")
+    @ApiResponse(responseCode = "409", description = "The job was modified by someone else")
+    @PatchMapping("/{id}")
+    public Mono<Job> patchJob(@PathVariable String id, @RequestBody Job job) {
+        return jobService.updateJob(id, job, true);
+    }
+
+    @PreAuthorize("hasRole('EMPLOYER')")
+    @Operation(summary = "Delete a job", description = "Delete a job by ID (EMPLOYER role required)")
+    @ApiResponse(responseCode = "200", description = "Successfully deleted job")
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteJob(@PathVariable String id) {
+        return jobService.deleteJob(id);
+    }
+}
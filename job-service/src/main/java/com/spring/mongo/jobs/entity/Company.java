@@ -1,11 +1,18 @@
 package com.spring.mongo.jobs.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 
+// Company details as rendered on a job, a stored job keeps the name only (see CompanyEntity)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class Company {
+    @TextIndexed(weight = 5)
     private String name;
     private String description;
     private String contactEmail;
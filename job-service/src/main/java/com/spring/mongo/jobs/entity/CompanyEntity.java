@@ -0,0 +1,44 @@
+package com.spring.mongo.jobs.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * An employer, stored once and referenced by its jobs through {@code companyId}. Jobs keep a copy of
+ * the name only, so listings, filters, facets and text search never join; the details are filled
+ * in from {@code CompanyCache} when a job is rendered whole.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Document(collection = "companies")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompanyEntity {
+    @Id
+    private String id;
+    @Indexed(unique = true)
+    private String name;
+    private String description;
+    private String contactEmail;
+    private String contactPhone;
+
+    // Counter cache of the jobs referencing this company, moved by every job write. A move lost to a failure
+    // between the job write and the counter write is repaired by the hourly OpenJobsReconciler
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long openJobs;
+
+    public static CompanyEntity of(Company company) {
+        return new CompanyEntity(null, company.getName(), company.getDescription(), company.getContactEmail(),
+                company.getContactPhone(), 0L);
+    }
+
+    public Company toCompany() {
+        return new Company(name, description, contactEmail, contactPhone);
+    }
+}
@@ -1,23 +1,166 @@
 package com.spring.mongo.jobs.entity;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.spring.mongo.jobs.geo.Gazetteer;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
+// Listing indexes: each of the eight combinations of the type, location and company filters (none,
+// one, two or all three) is the exact equality prefix of one of them, followed by the (postedAt, _id)
+// keyset used for sorting and paging, so no listing needs a blocking sort before skip/limit. The
+// salary range keys trail the sort keys (equality, sort, range), so salary filters are evaluated on
+// index keys while the listing still walks the index in posting order without a blocking sort.
+// Proximity search reads the jobs of each nearby city from placeId_postedAt in posting order, and the
+// jobs of a company come from companyId_postedAt
 @Document(collection = "jobs")
+@CompoundIndexes({
+        @CompoundIndex(name = "postedAt_id_salary",
+                def = "{'postedAt': -1, '_id': -1, 'salaryCurrency': 1, 'salaryMax': 1, 'salaryMin': 1}"),
+        @CompoundIndex(name = "type_postedAt", def = "{'type': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "location_postedAt", def = "{'location': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "company_postedAt", def = "{'company.name': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "type_location_postedAt_salary",
+                def = "{'type': 1, 'location': 1, 'postedAt': -1, '_id': -1, "
+                        + "'salaryCurrency': 1, 'salaryMax': 1, 'salaryMin': 1}"),
+        @CompoundIndex(name = "type_location_company_postedAt",
+                def = "{'type': 1, 'location': 1, 'company.name': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "location_company_postedAt",
+                def = "{'location': 1, 'company.name': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "company_type_postedAt",
+                def = "{'company.name': 1, 'type': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "placeId_postedAt", def = "{'placeId': 1, 'postedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "companyId_postedAt", def = "{'companyId': 1, 'postedAt': -1, '_id': -1}")
+})
+// Fields left out by a projection are omitted from the JSON rather than rendered as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Data
-@AllArgsConstructor
+@NoArgsConstructor
 public class Job {
     @Id
     private String id;
+    @TextIndexed(weight = 10)
     private String title;
     private String type;
+    @TextIndexed(weight = 3)
     private String location;
+
+    // Gazetteer city the location resolved to on the last write, null for unknown and remote locations.
+    // Derived fields are written even when null, which tells DerivedFieldsBackfill they were derived
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Field(write = Field.Write.ALWAYS)
+    private String placeId;
+    // Position of that city for geospatial queries ($geoWithin, $near) on the collection
+    @JsonIgnore
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    @Field(write = Field.Write.ALWAYS)
+    private GeoJsonPoint point;
+
+    @TextIndexed
     private String description;
     private String salary;
+
+    // Parsed from salary on every write, annual amounts in whole units of salaryCurrency
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Field(write = Field.Write.ALWAYS)
+    private Long salaryMin;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Field(write = Field.Write.ALWAYS)
+    private Long salaryMax;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Field(write = Field.Write.ALWAYS)
+    private String salaryCurrency;
+
     private LocalDate postedAt;
+
+    // Reference into the companies collection. Only the company name is stored on the job; the rest
+    // of company is rendered from the company document and not persisted here
+    private String companyId;
     private Company company;
+
+    // Optimistic lock, a write that names a stale version is rejected instead of overwriting
+    @Version
+    private Long version;
+
+    // Moves on every write, lets replicas without change streams detect that the collection changed
+    @Indexed
+    private Instant lastModifiedAt;
+
+    // Relevance of a full-text search hit, read-only and absent outside of search results
+    @TextScore
+    private Float score;
+
+    // Distance from the searched point, only set on results of a proximity search
+    @ReadOnlyProperty
+    private Double distanceKm;
+
+    public Job(String id, String title, String type, String location, String description, String salary,
+               LocalDate postedAt, Company company) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.location = location;
+        this.description = description;
+        this.salary = salary;
+        this.postedAt = postedAt;
+        this.company = company;
+        deriveFields();
+    }
+
+    /**
+     * This job as {@code JobQueries.update(changes, partial)} leaves it, so a write that returns the
+     * previous document does not have to read the new one back. Keep the two in step.
+     */
+    public Job updatedWith(Job changes, boolean partial) {
+        Job updated = new Job(id, pick(changes.title, title, partial), pick(changes.type, type, partial),
+                pick(changes.location, location, partial), pick(changes.description, description, partial),
+                pick(changes.salary, salary, partial), postedAt, company);
+        updated.companyId = companyId;
+        if (!partial || changes.companyId != null) {
+            updated.companyId = changes.companyId;
+            updated.company = changes.company;
+        }
+        updated.version = version == null ? 1 : version + 1;
+        updated.lastModifiedAt = changes.lastModifiedAt;
+        return updated;
+    }
+
+    private static <T> T pick(T change, T current, boolean partial) {
+        return change != null || !partial ? change : current;
+    }
+
+    // Points the job at a company document, keeping just the name the job is filtered and searched by
+    public void referTo(CompanyEntity companyEntity) {
+        this.companyId = companyEntity == null ? null : companyEntity.getId();
+        this.company = companyEntity == null ? null : new Company(companyEntity.getName(), null, null, null);
+    }
+
+    // Derives the numeric salary range and the coordinates from the free-text salary and location
+    public void deriveFields() {
+        Salary parsed = Salary.parse(salary);
+        this.salaryMin = parsed == null ? null : parsed.min();
+        this.salaryMax = parsed == null ? null : parsed.max();
+        this.salaryCurrency = parsed == null ? null : parsed.currency();
+
+        Gazetteer.Place place = Gazetteer.bundled().resolve(location);
+        this.placeId = place == null ? null : place.id();
+        this.point = place == null ? null : place.point();
+    }
 }
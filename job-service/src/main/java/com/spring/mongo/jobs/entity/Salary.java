@@ -0,0 +1,85 @@
+package com.spring.mongo.jobs.entity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Numeric form of the free-text salary of a job such as {@code "$90K - $100K"} or {@code "12-25 LPA"}:
+ * an annual range in whole units of an ISO 4217 currency. Text without a recognisable currency, or
+ * quoting an hourly, daily, weekly or monthly rate, has no numeric form.
+ */
+public record Salary(long min, long max, String currency) {
+
+    private static final Pattern AMOUNT = Pattern.compile(
+            "(\\d+(?:,\\d{3})*(?:\\.\\d+)?)\\s*(thousand|k|million|mn|m|lpa|lakhs?|lacs?)?(?![a-z])",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CURRENCY_CODE = Pattern.compile("\\b(USD|EUR|GBP|INR)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NOT_ANNUAL = Pattern.compile(
+            "(/|\\bper\\b|\\ban?\\b)\\s*(h|hr|hour|day|week|wk|month|mo)\\b|\\b(hourly|daily|weekly|monthly)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Map<String, String> CURRENCY_SYMBOLS = Map.of("$", "USD", "€", "EUR", "£", "GBP", "₹", "INR");
+
+    public static Salary parse(String text) {
+        if (text == null || text.isBlank() || NOT_ANNUAL.matcher(text).find()) {
+            return null;
+        }
+
+        List<BigDecimal> amounts = new ArrayList<>(2);
+        List<String> units = new ArrayList<>(2);
+        Matcher matcher = AMOUNT.matcher(text);
+        while (amounts.size() < 2 && matcher.find()) {
+            amounts.add(new BigDecimal(matcher.group(1).replace(",", "")));
+            units.add(matcher.group(2) == null ? null : matcher.group(2).toLowerCase(Locale.ROOT));
+        }
+        if (amounts.isEmpty()) {
+            return null;
+        }
+
+        // "$90-100K" and "12-25 LPA" put the unit on the upper bound only
+        String rangeUnit = units.get(units.size() - 1);
+        boolean lakhs = rangeUnit != null && rangeUnit.startsWith("l");
+        String currency = currency(text, lakhs);
+        if (currency == null) {
+            return null;
+        }
+
+        long[] values = new long[amounts.size()];
+        for (int i = 0; i < values.length; i++) {
+            String unit = units.get(i) == null ? rangeUnit : units.get(i);
+            values[i] = amounts.get(i).multiply(multiplier(unit)).longValue();
+        }
+        long min = values[0];
+        long max = values[values.length - 1];
+        return new Salary(Math.min(min, max), Math.max(min, max), currency);
+    }
+
+    private static String currency(String text, boolean lakhs) {
+        Matcher code = CURRENCY_CODE.matcher(text);
+        if (code.find()) {
+            return code.group(1).toUpperCase(Locale.ROOT);
+        }
+        for (Map.Entry<String, String> symbol : CURRENCY_SYMBOLS.entrySet()) {
+            if (text.contains(symbol.getKey())) {
+                return symbol.getValue();
+            }
+        }
+        // Lakhs per annum are only quoted in rupees
+        return lakhs ? "INR" : null;
+    }
+
+    private static BigDecimal multiplier(String unit) {
+        if (unit == null) {
+            return BigDecimal.ONE;
+        }
+        return switch (unit.charAt(0)) {
+            case 'k', 't' -> BigDecimal.valueOf(1_000);
+            case 'm' -> BigDecimal.valueOf(1_000_000);
+            default -> BigDecimal.valueOf(100_000);
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.spring.mongo.jobs.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,6 +12,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.LocalDateTime;
 
 @ControllerAdvice
+@Profile("!reactive")
 @Slf4j
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
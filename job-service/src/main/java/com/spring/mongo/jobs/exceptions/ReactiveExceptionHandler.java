@@ -0,0 +1,42 @@
+package com.spring.mongo.jobs.exceptions;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.time.LocalDateTime;
+
+// WebFlux counterpart of GlobalExceptionHandler, same error body for the reactive profile
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorDetailsResponse> handleResourceNotFoundException(ResourceNotFoundException exception,
+                                                                                ServerHttpRequest request) {
+        return new ResponseEntity<>(errorDetails(exception, request), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(JobAPIException.class)
+    public ResponseEntity<ErrorDetailsResponse> handleJobAPIException(JobAPIException exception,
+                                                                      ServerHttpRequest request) {
+        return new ResponseEntity<>(errorDetails(exception, request), exception.getStatus());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorDetailsResponse> handleGlobalException(Exception exception,
+                                                                      ServerHttpRequest request) {
+        return new ResponseEntity<>(errorDetails(exception, request), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static ErrorDetailsResponse errorDetails(Exception exception, ServerHttpRequest request) {
+        return ErrorDetailsResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .message(exception.getMessage())
+                .details("uri=" + request.getPath())
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.spring.mongo.jobs.geo;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cities bundled with the service ({@code gazetteer/cities.csv}) that free-text job locations such as
+ * {@code "Boston, MA"} resolve to, so jobs get coordinates at write time without calling a geocoding
+ * service. A location matches a city by name, name with region or country, one of its aliases, or
+ * name with a country name from {@code gazetteer/countries.csv}; anything else (including
+ * {@code "Remote"} and a city qualified with another region, like {@code "Portland, ME"}) stays
+ * without coordinates.
+ */
+public final class Gazetteer {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public record Place(String id, String name, String region, String country, double latitude, double longitude) {
+
+        public GeoJsonPoint point() {
+            return new GeoJsonPoint(longitude, latitude);
+        }
+    }
+
+    public record PlaceDistance(Place place, double distanceKm) {
+    }
+
+    private static class Bundled {
+        private static final Gazetteer INSTANCE = load(new ClassPathResource("gazetteer/cities.csv"),
+                new ClassPathResource("gazetteer/countries.csv"));
+    }
+
+    private final List<Place> places;
+    private final Map<String, Place> byName;
+    // Normalized country name to the country code of cities.csv
+    private final Map<String, String> countries;
+
+    private Gazetteer(List<Place> places, Map<String, Place> byName, Map<String, String> countries) {
+        this.places = List.copyOf(places);
+        this.byName = Map.copyOf(byName);
+        this.countries = Map.copyOf(countries);
+    }
+
+    public static Gazetteer bundled() {
+        return Bundled.INSTANCE;
+    }
+
+    private static Gazetteer load(ClassPathResource cities, ClassPathResource countryNames) {
+        List<Place> places = new ArrayList<>();
+        Map<String, Place> byName = new HashMap<>();
+        for (String[] columns : rows(cities)) {
+            Place place = new Place(columns[0], columns[1], columns[2], columns[3],
+                    Double.parseDouble(columns[4]), Double.parseDouble(columns[5]));
+            places.add(place);
+
+            List<String> names = new ArrayList<>();
+            names.add(place.name());
+            if (!columns[6].isEmpty()) {
+                names.addAll(List.of(columns[6].split("\\|")));
+            }
+            for (String name : names) {
+                byName.putIfAbsent(normalize(name), place);
+                byName.putIfAbsent(normalize(name + ", " + place.region()), place);
+                byName.putIfAbsent(normalize(name + ", " + place.country()), place);
+            }
+        }
+
+        Map<String, String> countries = new HashMap<>();
+        for (String[] columns : rows(countryNames)) {
+            for (String name : columns[1].split("\\|")) {
+                countries.put(normalize(name), columns[0]);
+            }
+        }
+        return new Gazetteer(places, byName, countries);
+    }
+
+    // The comma-separated columns of every line that is not blank or a # comment
+    private static List<String[]> rows(ClassPathResource resource) {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    rows.add(line.split(",", -1));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load gazetteer " + resource.getPath(), e);
+        }
+        return rows;
+    }
+
+    public Place resolve(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        String normalized = normalize(location);
+        Place place = byName.get(normalized);
+        int separator = normalized.indexOf(',');
+        if (place == null && separator > 0) {
+            // "New York, USA" names the country in a way we do not index. Any other qualifier either
+            // contradicts the city's region ("Portland, ME") or is one we can't check, so it stays unresolved
+            Place city = byName.get(normalized.substring(0, separator).trim());
+            String country = countries.get(normalized.substring(separator + 1).trim());
+            if (city != null && city.country().equals(country)) {
+                place = city;
+            }
+        }
+        return place;
+    }
+
+    // Every place within the radius, nearest first
+    public List<PlaceDistance> within(double latitude, double longitude, double radiusKm) {
+        List<PlaceDistance> nearby = new ArrayList<>();
+        for (Place place : places) {
+            double distanceKm = distanceKm(latitude, longitude, place.latitude(), place.longitude());
+            if (distanceKm <= radiusKm) {
+                nearby.add(new PlaceDistance(place, distanceKm));
+            }
+        }
+        nearby.sort(Comparator.comparingDouble(PlaceDistance::distanceKm)
+                .thenComparing(nearbyPlace -> nearbyPlace.place().id()));
+        return nearby;
+    }
+
+    // Haversine great-circle distance
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s*,\\s*", ", ").replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
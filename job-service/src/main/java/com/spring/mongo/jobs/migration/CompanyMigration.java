@@ -0,0 +1,89 @@
+package com.spring.mongo.jobs.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import com.spring.mongo.jobs.repository.CompanyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the companies embedded in jobs written before the companies collection existed into it, one
+ * company per distinct name with the details of its most recently modified job, and leaves the jobs
+ * with the companyId and the name. The openJobs counter of each company goes up by the jobs moved to
+ * it, an increment like those of live writes rather than an absolute recount, which would overwrite
+ * the increments of jobs written while the count ran. Runs on every startup and is idempotent, since
+ * only jobs without companyId are moved.
+ */
+@Component
+@Order(0)
+@Slf4j
+public class CompanyMigration implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final CompanyRepository companyRepository;
+
+    @Autowired
+    public CompanyMigration(MongoTemplate mongoTemplate, CompanyRepository companyRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.companyRepository = companyRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = migrate();
+        if (migrated > 0) {
+            log.info("Moved the companies of {} jobs into the companies collection", migrated);
+        }
+    }
+
+    public long migrate() {
+        MongoCollection<Document> jobs = mongoTemplate.getCollection("jobs");
+        long migrated = 0;
+
+        for (Document group : jobs.aggregate(List.of(
+                        Aggregates.match(Filters.and(
+                                Filters.exists("companyId", false),
+                                Filters.ne("company.name", null))),
+                        Aggregates.sort(Sorts.descending("lastModifiedAt")),
+                        Aggregates.group("$company.name",
+                                Accumulators.first("description", "$company.description"),
+                                Accumulators.first("contactEmail", "$company.contactEmail"),
+                                Accumulators.first("contactPhone", "$company.contactPhone"))))
+                .allowDiskUse(true)) {
+            String name = group.getString("_id");
+            CompanyEntity company = companyRepository.findOrCreate(new Company(name, group.getString("description"),
+                    group.getString("contactEmail"), group.getString("contactPhone")));
+
+            long moved = jobs.updateMany(
+                    Filters.and(Filters.exists("companyId", false), Filters.eq("company.name", name)),
+                    Updates.combine(
+                            Updates.set("companyId", company.getId()),
+                            Updates.unset("company.description"),
+                            Updates.unset("company.contactEmail"),
+                            Updates.unset("company.contactPhone"),
+                            Updates.set("lastModifiedAt", Instant.now())))
+                    .getModifiedCount();
+            if (moved > 0) {
+                companyRepository.countJobs(Map.of(company.getId(), moved));
+                migrated += moved;
+            }
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,93 @@
+package com.spring.mongo.jobs.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.spring.mongo.jobs.entity.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the fields derived from the salary and location text (numeric salary range, gazetteer city
+ * and coordinates) of jobs written before they existed. Only jobs missing salaryCurrency or placeId
+ * are touched, unreadable values get explicit nulls (as every job write now stores them, see Job) so
+ * they are not derived again, and writes go in unordered batches. lastModifiedAt moves so the job
+ * caches of every replica pick up the new fields. Once a pass completes it is recorded in
+ * {@link Migrations}, and later startups skip the collection scan.
+ */
+@Component
+@Order(0)
+@Slf4j
+public class DerivedFieldsBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+    // Bump when another derived field is added, so existing jobs are backfilled once more
+    private static final String MIGRATION_ID = "derivedFields-placeId";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public DerivedFieldsBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (Migrations.isDone(mongoTemplate, MIGRATION_ID)) {
+            return;
+        }
+        long backfilled = backfill();
+        if (backfilled > 0) {
+            log.info("Backfilled the derived fields of {} jobs", backfilled);
+        }
+        Migrations.markDone(mongoTemplate, MIGRATION_ID);
+    }
+
+    public long backfill() {
+        MongoCollection<Document> jobs = mongoTemplate.getCollection("jobs");
+        List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+        long backfilled = 0;
+
+        for (Document document : jobs.find(Filters.or(
+                        Filters.exists("salaryCurrency", false),
+                        Filters.exists("placeId", false)))
+                .projection(Projections.include("salary", "location"))
+                .batchSize(BATCH_SIZE)) {
+            Job job = new Job();
+            job.setSalary(document.getString("salary"));
+            job.setLocation(document.getString("location"));
+            job.deriveFields();
+
+            batch.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")), Updates.combine(
+                    Updates.set("salaryMin", job.getSalaryMin()),
+                    Updates.set("salaryMax", job.getSalaryMax()),
+                    Updates.set("salaryCurrency", job.getSalaryCurrency()),
+                    Updates.set("placeId", job.getPlaceId()),
+                    Updates.set("point", job.getPoint() == null ? null : mongoTemplate.getConverter()
+                            .convertToMongoType(job.getPoint())),
+                    Updates.set("lastModifiedAt", Instant.now()))));
+            if (batch.size() == BATCH_SIZE) {
+                backfilled += jobs.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            backfilled += jobs.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return backfilled;
+    }
+}
@@ -0,0 +1,34 @@
+package com.spring.mongo.jobs.migration;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+/**
+ * Completed one-off migrations, one document per migration id in the {@code migrations} collection,
+ * so a finished migration costs a single lookup on later startups instead of another scan.
+ */
+final class Migrations {
+
+    private static final String COLLECTION = "migrations";
+
+    private Migrations() {
+    }
+
+    static boolean isDone(MongoTemplate mongoTemplate, String id) {
+        return mongoTemplate.exists(byId(id), COLLECTION);
+    }
+
+    static void markDone(MongoTemplate mongoTemplate, String id) {
+        mongoTemplate.upsert(byId(id), new Update().setOnInsert("completedAt", Instant.now()), Document.class,
+                COLLECTION);
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+}
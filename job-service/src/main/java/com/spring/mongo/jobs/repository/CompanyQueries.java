@@ -0,0 +1,75 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Company;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Queries and updates on the {@code companies} collection, shared by the blocking and the reactive
+ * repository.
+ */
+final class CompanyQueries {
+
+    private CompanyQueries() {
+    }
+
+    static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    static Query byName(String name) {
+        return new Query(Criteria.where("name").is(name));
+    }
+
+    // Upsert by name, an existing company keeps its details and the new one starts without jobs
+    static Update create(Company company) {
+        Update update = new Update().setOnInsert("openJobs", 0L);
+        setOnInsert(update, "description", company.getDescription());
+        setOnInsert(update, "contactEmail", company.getContactEmail());
+        setOnInsert(update, "contactPhone", company.getContactPhone());
+        return update;
+    }
+
+    // Replaces the editable details, the job count is left to the job writes
+    static Update details(Company company) {
+        return new Update()
+                .set("name", company.getName())
+                .set("description", company.getDescription())
+                .set("contactEmail", company.getContactEmail())
+                .set("contactPhone", company.getContactPhone());
+    }
+
+    static Update countJobs(long delta) {
+        return new Update().inc("openJobs", delta);
+    }
+
+    // Only matches while the counter still holds the value the recount read, a job write in between wins
+    static Query byIdAndOpenJobs(String id, Long openJobs) {
+        return new Query(Criteria.where("id").is(id).and("openJobs").is(openJobs));
+    }
+
+    static Update recount(long openJobs) {
+        return new Update().set("openJobs", openJobs);
+    }
+
+    static Query counters() {
+        Query query = new Query();
+        query.fields().include("openJobs");
+        return query;
+    }
+
+    // Jobs per companyId, run against the jobs collection
+    static Aggregation jobCounts() {
+        return Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("companyId").ne(null)),
+                Aggregation.group("companyId").count().as("count"));
+    }
+
+    private static void setOnInsert(Update update, String field, Object value) {
+        if (value != null) {
+            update.setOnInsert(field, value);
+        }
+    }
+}
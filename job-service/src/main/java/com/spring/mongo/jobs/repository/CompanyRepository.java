@@ -0,0 +1,9 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CompanyRepository extends MongoRepository<CompanyEntity, String>, CompanyRepositoryCustom {
+}
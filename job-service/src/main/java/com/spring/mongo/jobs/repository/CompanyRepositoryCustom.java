@@ -0,0 +1,16 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+
+import java.util.Map;
+
+public interface CompanyRepositoryCustom {
+    CompanyEntity findOrCreate(Company company);
+
+    CompanyEntity updateCompany(String id, Company details);
+
+    void countJobs(Map<String, Long> deltas);
+
+    long recountJobs();
+}
@@ -0,0 +1,83 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import com.spring.mongo.jobs.entity.Job;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class CompanyRepositoryImpl implements CompanyRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public CompanyRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Of two writers upserting the same new name, the one losing on the unique index reads the winner's company
+    @Override
+    public CompanyEntity findOrCreate(Company company) {
+        try {
+            return mongoTemplate.findAndModify(CompanyQueries.byName(company.getName()), CompanyQueries.create(company),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), CompanyEntity.class);
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findOne(CompanyQueries.byName(company.getName()), CompanyEntity.class);
+        }
+    }
+
+    // Returns the updated company, or null when none has this id
+    @Override
+    public CompanyEntity updateCompany(String id, Company details) {
+        return mongoTemplate.findAndModify(CompanyQueries.byId(id), CompanyQueries.details(details),
+                FindAndModifyOptions.options().returnNew(true), CompanyEntity.class);
+    }
+
+    // Moves the job counts of several companies in one unordered bulk write
+    @Override
+    public void countJobs(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CompanyEntity.class);
+        deltas.forEach((id, delta) ->
+                bulkOperations.updateOne(CompanyQueries.byId(id), CompanyQueries.countJobs(delta)));
+        bulkOperations.execute();
+    }
+
+    /**
+     * Sets openJobs to the number of jobs referencing the company wherever the two differ, and returns
+     * how many companies were corrected. Each correction only applies if the counter has not moved
+     * since it was read, so job writes made during the recount keep their increments. A job written
+     * between the count and that read can still leave its company off by one until the next recount.
+     */
+    @Override
+    public long recountJobs() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(CompanyQueries.jobCounts(), Job.class, Document.class)) {
+            counts.put(group.getString("_id"), group.get("count", Number.class).longValue());
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CompanyEntity.class);
+        int corrections = 0;
+        try (Stream<CompanyEntity> companies = mongoTemplate.stream(CompanyQueries.counters(), CompanyEntity.class)) {
+            for (CompanyEntity company : (Iterable<CompanyEntity>) companies::iterator) {
+                long count = counts.getOrDefault(company.getId(), 0L);
+                if (company.getOpenJobs() == null || company.getOpenJobs() != count) {
+                    bulkOperations.updateOne(CompanyQueries.byIdAndOpenJobs(company.getId(), company.getOpenJobs()),
+                            CompanyQueries.recount(count));
+                    corrections++;
+                }
+            }
+        }
+        return corrections == 0 ? 0 : bulkOperations.execute().getModifiedCount();
+    }
+}
@@ -0,0 +1,262 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.entity.Salary;
+import com.spring.mongo.jobs.geo.Gazetteer;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queries and updates on the {@code jobs} collection, shared by the blocking and the reactive
+ * repository so both modes read and write exactly the same way.
+ */
+final class JobQueries {
+
+    private static final int STREAM_BATCH_SIZE = 1000;
+    // Fields the facets count by
+    static final String[] FACET_FIELDS = {"type", "location", "company.name"};
+    // All a removal needs to return to keep the facet counts and the company's job count in step
+    static final String[] REMOVAL_FIELDS = {"type", "location", "company.name", "companyId"};
+
+    private JobQueries() {
+    }
+
+    static Query listing(JobFilter filter, Sort.Direction direction, JobCursor after, long skip, int limit,
+                         JobFields fields) {
+        List<Criteria> criteria = filterCriteria(filter);
+        if (after != null) {
+            criteria.add(afterCursor(direction, after));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria));
+        return project(query, fields)
+                .with(Sort.by(direction, "postedAt", "id"))
+                .skip(skip)
+                .limit(limit);
+    }
+
+    // Jobs of one gazetteer city, newest first
+    static Query atPlace(String placeId, JobCursor after, int limit, JobFields fields) {
+        Criteria criteria = Criteria.where("placeId").is(placeId);
+        if (after != null) {
+            criteria = new Criteria().andOperator(criteria, afterCursor(Sort.Direction.DESC, after));
+        }
+        return project(new Query(criteria), fields, "placeId")
+                .with(Sort.by(Sort.Direction.DESC, "postedAt", "id"))
+                .limit(limit);
+    }
+
+    static Query export(LocalDate since) {
+        Query query = since == null
+                ? new Query()
+                : new Query(Criteria.where("postedAt").gte(since));
+        return query.with(Sort.by(Sort.Direction.ASC, "postedAt", "id"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+    }
+
+    static Query search(String text, boolean includeDescription, long skip, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .includeScore()
+                .skip(skip)
+                .limit(limit);
+        if (!includeDescription) {
+            // Descriptions dominate the document size and are not needed to render hits
+            query.fields().exclude("description");
+        }
+        return query;
+    }
+
+    /**
+     * Counts the jobs matching the filter by type, location and company in a single {@code $facet}
+     * aggregation, so the filter is evaluated once for all three. Each facet keeps its {@code limit}
+     * largest buckets, ties by value; a limit of 0 keeps every bucket.
+     */
+    static Aggregation facets(JobFilter filter, int limit) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        List<Criteria> criteria = filterCriteria(filter);
+        if (!criteria.isEmpty()) {
+            operations.add(Aggregation.match(new Criteria().andOperator(criteria)));
+        }
+        operations.add(Aggregation.facet(countBy(FACET_FIELDS[0], limit)).as("type")
+                .and(countBy(FACET_FIELDS[1], limit)).as("location")
+                .and(countBy(FACET_FIELDS[2], limit)).as("company")
+                .and(Aggregation.count().as("total")).as("total"));
+        return Aggregation.newAggregation(operations);
+    }
+
+    static JobFacets toFacets(Document result) {
+        List<Document> total = result.getList("total", Document.class);
+        return new JobFacets(total.isEmpty() ? 0 : total.get(0).get("total", Number.class).longValue(),
+                buckets(result, "type"), buckets(result, "location"), buckets(result, "company"));
+    }
+
+    private static AggregationOperation[] countBy(String field, int limit) {
+        List<AggregationOperation> operations = new ArrayList<>(List.of(
+                Aggregation.match(Criteria.where(field).ne(null)),
+                Aggregation.group(field).count().as("count"),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by(Sort.Direction.ASC, "_id")))));
+        if (limit > 0) {
+            operations.add(Aggregation.limit(limit));
+        }
+        return operations.toArray(AggregationOperation[]::new);
+    }
+
+    private static List<JobFacets.Bucket> buckets(Document result, String facet) {
+        return result.getList(facet, Document.class).stream()
+                .map(bucket -> new JobFacets.Bucket(bucket.get("_id").toString(),
+                        bucket.get("count", Number.class).longValue()))
+                .toList();
+    }
+
+    static Query byId(String id) {
+        return new Query(Criteria.where("id").is(id));
+    }
+
+    static Query byId(String id, JobFields fields) {
+        return project(byId(id), fields);
+    }
+
+    static Query ofCompany(String companyId) {
+        return new Query(Criteria.where("companyId").is(companyId));
+    }
+
+    // Keeps the company name copied onto the jobs of a renamed company in step
+    static Update renameCompany(String name) {
+        return new Update()
+                .set("company.name", name)
+                .set("lastModifiedAt", Instant.now());
+    }
+
+    /**
+     * Returns only the requested fields, plus the ones cursors are built from. Company details are
+     * rendered from the company document, so asking for them projects the company reference.
+     */
+    private static Query project(Query query, JobFields fields, String... cursorFields) {
+        if (!fields.isAll()) {
+            query.fields()
+                    .include(fields.include().toArray(String[]::new))
+                    .include("postedAt")
+                    .include(cursorFields);
+            if (fields.needsCompany()) {
+                query.fields().include("companyId");
+            }
+        }
+        return query;
+    }
+
+    // Only matches the expected version when the changes carry one
+    static Query byIdAndVersion(String id, Long version) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (version != null) {
+            criteria.and("version").is(version);
+        }
+        return new Query(criteria);
+    }
+
+    /**
+     * Sets the editable fields of {@code changes}, and its lastModifiedAt. A partial update only sets
+     * the fields that are present, a full one also clears the absent ones. Job.updatedWith applies
+     * the same changes in memory.
+     */
+    static Update update(Job changes, boolean partial) {
+        Update update = new Update()
+                .inc("version", 1)
+                .set("lastModifiedAt", changes.getLastModifiedAt());
+        setField(update, "title", changes.getTitle(), partial);
+        setField(update, "type", changes.getType(), partial);
+        setField(update, "location", changes.getLocation(), partial);
+        if (changes.getLocation() != null || !partial) {
+            Gazetteer.Place place = Gazetteer.bundled().resolve(changes.getLocation());
+            update.set("placeId", place == null ? null : place.id())
+                    .set("point", place == null ? null : place.point());
+        }
+        setField(update, "description", changes.getDescription(), partial);
+        setField(update, "salary", changes.getSalary(), partial);
+        if (changes.getSalary() != null || !partial) {
+            Salary salary = Salary.parse(changes.getSalary());
+            update.set("salaryMin", salary == null ? null : salary.min())
+                    .set("salaryMax", salary == null ? null : salary.max())
+                    .set("salaryCurrency", salary == null ? null : salary.currency());
+        }
+        if (!partial || changes.getCompanyId() != null) {
+            // Resolved by the service beforehand, see Job.referTo
+            update.set("companyId", changes.getCompanyId())
+                    .set("company", changes.getCompany());
+        }
+        return update;
+    }
+
+    private static void setField(Update update, String field, Object value, boolean partial) {
+        if (value != null || !partial) {
+            update.set(field, value);
+        }
+    }
+
+    private static List<Criteria> filterCriteria(JobFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getType() != null) {
+            criteria.add(Criteria.where("type").is(filter.getType()));
+        }
+        if (filter.getLocation() != null) {
+            criteria.add(Criteria.where("location").is(filter.getLocation()));
+        }
+        if (filter.getCompany() != null) {
+            criteria.add(Criteria.where("company.name").is(filter.getCompany()));
+        }
+        if (filter.getCompanyId() != null) {
+            criteria.add(Criteria.where("companyId").is(filter.getCompanyId()));
+        }
+        if (filter.getPostedFrom() != null || filter.getPostedTo() != null) {
+            Criteria postedAt = Criteria.where("postedAt");
+            if (filter.getPostedFrom() != null) {
+                postedAt.gte(filter.getPostedFrom());
+            }
+            if (filter.getPostedTo() != null) {
+                postedAt.lte(filter.getPostedTo());
+            }
+            criteria.add(postedAt);
+        }
+        // Ranges overlap when each one starts before the other ends
+        if (filter.getSalaryMin() != null) {
+            criteria.add(Criteria.where("salaryMax").gte(filter.getSalaryMin()));
+        }
+        if (filter.getSalaryMax() != null) {
+            criteria.add(Criteria.where("salaryMin").lte(filter.getSalaryMax()));
+        }
+        if (filter.getCurrency() != null) {
+            criteria.add(Criteria.where("salaryCurrency").is(filter.getCurrency()));
+        }
+        return criteria;
+    }
+
+    // Keyset condition: strictly after (postedAt, id) in the requested sort order
+    private static Criteria afterCursor(Sort.Direction direction, JobCursor after) {
+        if (direction.isAscending()) {
+            return new Criteria().orOperator(
+                    Criteria.where("postedAt").gt(after.postedAt()),
+                    Criteria.where("postedAt").is(after.postedAt()).and("id").gt(after.id()));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("postedAt").lt(after.postedAt()),
+                Criteria.where("postedAt").is(after.postedAt()).and("id").lt(after.id()));
+    }
+}
@@ -5,5 +5,5 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface JobRepository extends MongoRepository<Job, String> {
+public interface JobRepository extends MongoRepository<Job, String>, JobRepositoryCustom {
 }
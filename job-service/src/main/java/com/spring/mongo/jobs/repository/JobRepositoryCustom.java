@@ -0,0 +1,36 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface JobRepositoryCustom {
+    List<Job> findJobs(JobFilter filter, Sort.Direction direction, JobCursor after, long skip, int limit,
+                   JobFields fields);
+
+    List<Job> findJobsAt(String placeId, JobCursor after, int limit, JobFields fields);
+
+    Job findJob(String id, JobFields fields);
+
+    JobFacets facetJobs(JobFilter filter, int limit);
+
+    Stream<Job> streamJobs(LocalDate since);
+
+    List<Job> searchJobs(String text, boolean includeDescription, long skip, int limit);
+
+    Map<Integer, String> insertJobs(List<Job> jobs);
+
+    Job updateJob(String id, Job changes, boolean partial);
+
+    Job removeJob(String id);
+
+    long renameCompany(String companyId, String name);
+}
@@ -0,0 +1,106 @@
+package com.spring.mongo.jobs.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class JobRepositoryImpl implements JobRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public JobRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Job> findJobs(JobFilter filter, Sort.Direction direction, JobCursor after, long skip, int limit,
+                              JobFields fields) {
+        return mongoTemplate.find(JobQueries.listing(filter, direction, after, skip, limit, fields), Job.class);
+    }
+
+    @Override
+    public List<Job> findJobsAt(String placeId, JobCursor after, int limit, JobFields fields) {
+        return mongoTemplate.find(JobQueries.atPlace(placeId, after, limit, fields), Job.class);
+    }
+
+    @Override
+    public Job findJob(String id, JobFields fields) {
+        return mongoTemplate.findOne(JobQueries.byId(id, fields), Job.class);
+    }
+
+    @Override
+    public JobFacets facetJobs(JobFilter filter, int limit) {
+        return JobQueries.toFacets(mongoTemplate.aggregate(JobQueries.facets(filter, limit), Job.class, Document.class)
+                .getUniqueMappedResult());
+    }
+
+    @Override
+    public Stream<Job> streamJobs(LocalDate since) {
+        return mongoTemplate.stream(JobQueries.export(since), Job.class);
+    }
+
+    @Override
+    public List<Job> searchJobs(String text, boolean includeDescription, long skip, int limit) {
+        return mongoTemplate.find(JobQueries.search(text, includeDescription, skip, limit), Job.class);
+    }
+
+    // Unordered, so one bad document does not stop the rest of the batch; returns failures by batch index
+    @Override
+    public Map<Integer, String> insertJobs(List<Job> jobs) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Job.class)
+                    .insert(jobs)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> failures = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+            return failures;
+        }
+    }
+
+    /**
+     * Applies the changes in a single findAndModify and returns the job as it was before them, so the
+     * caller can tell what moved (see Job.updatedWith for the new state), or {@code null} when no job
+     * matched, either because it does not exist or the version is stale.
+     */
+    @Override
+    public Job updateJob(String id, Job changes, boolean partial) {
+        return mongoTemplate.findAndModify(JobQueries.byIdAndVersion(id, changes.getVersion()),
+                JobQueries.update(changes, partial), FindAndModifyOptions.options().returnNew(false), Job.class);
+    }
+
+    // Returns the facet fields and company of the removed job, or null when no job matched
+    @Override
+    public Job removeJob(String id) {
+        Query query = JobQueries.byId(id);
+        query.fields().include(JobQueries.REMOVAL_FIELDS);
+        return mongoTemplate.findAndRemove(query, Job.class);
+    }
+
+    @Override
+    public long renameCompany(String companyId, String name) {
+        return mongoTemplate.updateMulti(JobQueries.ofCompany(companyId), JobQueries.renameCompany(name), Job.class)
+                .getModifiedCount();
+    }
+}
@@ -0,0 +1,12 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("reactive")
+public interface ReactiveCompanyRepository
+        extends ReactiveMongoRepository<CompanyEntity, String>, ReactiveCompanyRepositoryCustom {
+}
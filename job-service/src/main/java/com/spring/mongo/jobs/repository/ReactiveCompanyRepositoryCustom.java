@@ -0,0 +1,13 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCompanyRepositoryCustom {
+    Mono<CompanyEntity> findOrCreate(Company company);
+
+    Mono<CompanyEntity> updateCompany(String id, Company details);
+
+    Mono<Void> countJobs(String id, long delta);
+}
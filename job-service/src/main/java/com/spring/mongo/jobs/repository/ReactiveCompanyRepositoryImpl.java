@@ -0,0 +1,41 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+public class ReactiveCompanyRepositoryImpl implements ReactiveCompanyRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    public ReactiveCompanyRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<CompanyEntity> findOrCreate(Company company) {
+        return reactiveMongoTemplate.findAndModify(CompanyQueries.byName(company.getName()),
+                        CompanyQueries.create(company), FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        CompanyEntity.class)
+                .onErrorResume(DuplicateKeyException.class, e -> reactiveMongoTemplate.findOne(
+                        CompanyQueries.byName(company.getName()), CompanyEntity.class));
+    }
+
+    // Completes empty when no company has this id
+    @Override
+    public Mono<CompanyEntity> updateCompany(String id, Company details) {
+        return reactiveMongoTemplate.findAndModify(CompanyQueries.byId(id), CompanyQueries.details(details),
+                FindAndModifyOptions.options().returnNew(true), CompanyEntity.class);
+    }
+
+    @Override
+    public Mono<Void> countJobs(String id, long delta) {
+        return reactiveMongoTemplate.updateFirst(CompanyQueries.byId(id), CompanyQueries.countJobs(delta),
+                CompanyEntity.class).then();
+    }
+}
@@ -0,0 +1,11 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Job;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("reactive")
+public interface ReactiveJobRepository extends ReactiveMongoRepository<Job, String>, ReactiveJobRepositoryCustom {
+}
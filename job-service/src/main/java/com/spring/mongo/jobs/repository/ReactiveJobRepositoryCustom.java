@@ -0,0 +1,33 @@
+package com.spring.mongo.jobs.repository;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveJobRepositoryCustom {
+    Flux<Job> findJobs(JobFilter filter, Sort.Direction direction, JobCursor after, long skip, int limit,
+                   JobFields fields);
+
+    Flux<Job> findJobsAt(String placeId, JobCursor after, int limit, JobFields fields);
+
+    Mono<Job> findJob(String id, JobFields fields);
+
+    Mono<JobFacets> facetJobs(JobFilter filter, int limit);
+
+    Flux<Job> streamJobs(LocalDate since);
+
+    Flux<Job> searchJobs(String text, boolean includeDescription, long skip, int limit);
+
+    Mono<Job> updateJob(String id, Job changes, boolean partial);
+
+    Mono<Job> removeJob(String id);
+
+    Mono<Long> renameCompany(String companyId, String name);
+}
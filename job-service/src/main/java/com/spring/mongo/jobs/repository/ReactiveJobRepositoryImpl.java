@@ -0,0 +1,84 @@
+package com.spring.mongo.jobs.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.response.JobFacets;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public class ReactiveJobRepositoryImpl implements ReactiveJobRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    public ReactiveJobRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Job> findJobs(JobFilter filter, Sort.Direction direction, JobCursor after, long skip, int limit,
+                              JobFields fields) {
+        return reactiveMongoTemplate.find(JobQueries.listing(filter, direction, after, skip, limit, fields),
+                Job.class);
+    }
+
+    @Override
+    public Flux<Job> findJobsAt(String placeId, JobCursor after, int limit, JobFields fields) {
+        return reactiveMongoTemplate.find(JobQueries.atPlace(placeId, after, limit, fields), Job.class);
+    }
+
+    @Override
+    public Mono<Job> findJob(String id, JobFields fields) {
+        return reactiveMongoTemplate.findOne(JobQueries.byId(id, fields), Job.class);
+    }
+
+    @Override
+    public Mono<JobFacets> facetJobs(JobFilter filter, int limit) {
+        return reactiveMongoTemplate.aggregate(JobQueries.facets(filter, limit), Job.class, Document.class)
+                .next()
+                .map(JobQueries::toFacets);
+    }
+
+    @Override
+    public Flux<Job> streamJobs(LocalDate since) {
+        return reactiveMongoTemplate.find(JobQueries.export(since), Job.class);
+    }
+
+    @Override
+    public Flux<Job> searchJobs(String text, boolean includeDescription, long skip, int limit) {
+        return reactiveMongoTemplate.find(JobQueries.search(text, includeDescription, skip, limit), Job.class);
+    }
+
+    // Completes with the job as it was before the changes, empty when no job matched, either because
+    // it does not exist or the version is stale
+    @Override
+    public Mono<Job> updateJob(String id, Job changes, boolean partial) {
+        return reactiveMongoTemplate.findAndModify(JobQueries.byIdAndVersion(id, changes.getVersion()),
+                JobQueries.update(changes, partial), FindAndModifyOptions.options().returnNew(false), Job.class);
+    }
+
+    // Completes with the facet fields and company of the removed job, empty when no job matched
+    @Override
+    public Mono<Job> removeJob(String id) {
+        Query query = JobQueries.byId(id);
+        query.fields().include(JobQueries.REMOVAL_FIELDS);
+        return reactiveMongoTemplate.findAndRemove(query, Job.class);
+    }
+
+    @Override
+    public Mono<Long> renameCompany(String companyId, String name) {
+        return reactiveMongoTemplate.updateMulti(JobQueries.ofCompany(companyId), JobQueries.renameCompany(name),
+                Job.class).map(UpdateResult::getModifiedCount);
+    }
+}
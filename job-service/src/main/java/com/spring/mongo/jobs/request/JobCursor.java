@@ -0,0 +1,31 @@
+package com.spring.mongo.jobs.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the listing, the (postedAt, id) of the last job of the previous page,
+ * exchanged with clients as an opaque base64url token.
+ */
+public record JobCursor(LocalDate postedAt, String id) {
+
+    public String encode() {
+        String value = postedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JobCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new JobCursor(LocalDate.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
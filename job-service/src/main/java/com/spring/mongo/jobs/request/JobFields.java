@@ -0,0 +1,66 @@
+package com.spring.mongo.jobs.request;
+
+import com.spring.mongo.jobs.entity.Company;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldset of a job read, pushed down into the Mongo projection. Parsed from a comma-separated
+ * {@code fields=} list of job fields, with nested company fields as {@code company.name}, or
+ * {@code *} for whole documents. An empty set means every field.
+ */
+public record JobFields(Set<String> include) {
+
+    private static final Set<String> FIELDS = Set.of("id", "title", "type", "location", "placeId", "description",
+            "salary", "salaryMin", "salaryMax", "salaryCurrency", "postedAt", "version", "lastModifiedAt",
+            "companyId", "company", "company.name", "company.description", "company.contactEmail",
+            "company.contactPhone");
+
+    public static final JobFields ALL = new JobFields(Set.of());
+
+    // What a list view renders, descriptions make up most of a job document
+    public static final JobFields SUMMARY = new JobFields(Set.of("id", "title", "type", "location", "salary",
+            "salaryMin", "salaryMax", "salaryCurrency", "postedAt", "company.name"));
+
+    public static JobFields parse(String fields) {
+        if ("*".equals(fields.trim())) {
+            return ALL;
+        }
+        Set<String> include = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ", expected * or any of " + FIELDS);
+            }
+            include.add(name);
+        }
+        if (include.contains("company")) {
+            // Mongo rejects a projection of both a document and one of its fields
+            include.removeIf(name -> name.startsWith("company."));
+        }
+        return new JobFields(Set.copyOf(include));
+    }
+
+    public boolean isAll() {
+        return include.isEmpty();
+    }
+
+    // Whether the jobs need their company document, the company name alone is stored on the job
+    public boolean needsCompany() {
+        return isAll() || include.stream().anyMatch(name ->
+                name.equals("company") || name.startsWith("company.") && !name.equals("company.name"));
+    }
+
+    // The requested fields of a company rendered from its document
+    public Company company(Company company) {
+        if (isAll() || include.contains("company")) {
+            return company;
+        }
+        return new Company(
+                include.contains("company.name") ? company.getName() : null,
+                include.contains("company.description") ? company.getDescription() : null,
+                include.contains("company.contactEmail") ? company.getContactEmail() : null,
+                include.contains("company.contactPhone") ? company.getContactPhone() : null);
+    }
+}
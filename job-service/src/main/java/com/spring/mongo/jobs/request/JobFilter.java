@@ -0,0 +1,26 @@
+package com.spring.mongo.jobs.request;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class JobFilter {
+    private String type;
+    private String location;
+    private String company;
+    private String companyId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate postedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate postedTo;
+
+    // Jobs whose salary range overlaps [salaryMin, salaryMax], amounts are annual and only comparable
+    // within one currency
+    private Long salaryMin;
+    private Long salaryMax;
+    private String currency;
+}
@@ -0,0 +1,30 @@
+package com.spring.mongo.jobs.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a proximity search: the gazetteer city of the last job of the previous page and that
+ * job's (postedAt, id) keyset within the city, exchanged with clients as an opaque base64url token.
+ */
+public record NearCursor(String placeId, JobCursor after) {
+
+    public String encode() {
+        String value = placeId + "|" + after.postedAt() + "|" + after.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NearCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new NearCursor(parts[0], new JobCursor(LocalDate.parse(parts[1]), parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
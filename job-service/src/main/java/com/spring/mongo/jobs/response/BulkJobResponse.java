@@ -0,0 +1,6 @@
+package com.spring.mongo.jobs.response;
+
+import java.util.List;
+
+public record BulkJobResponse(int received, int created, int failed, List<BulkJobResult> results) {
+}
@@ -0,0 +1,13 @@
+package com.spring.mongo.jobs.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkJobResult(int index, Status status, String id, String error) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+}
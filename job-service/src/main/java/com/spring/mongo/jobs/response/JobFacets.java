@@ -0,0 +1,10 @@
+package com.spring.mongo.jobs.response;
+
+import java.util.List;
+
+// Number of matching jobs, plus the most common values of each facet, largest count first
+public record JobFacets(long total, List<Bucket> type, List<Bucket> location, List<Bucket> company) {
+
+    public record Bucket(String value, long count) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.spring.mongo.jobs.response;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.NearCursor;
+
+import java.util.List;
+
+public record JobPage(List<Job> content, int page, int size, boolean hasNext, String nextCursor) {
+
+    /**
+     * Builds a page from a query that fetched one row more than {@code size}, the extra row only
+     * tells whether a next page exists. With {@code withCursor} the last job becomes the cursor of
+     * the next page.
+     */
+    public static JobPage of(List<Job> rows, int page, int size, boolean withCursor) {
+        boolean hasNext = rows.size() > size;
+        List<Job> jobs = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext && withCursor) {
+            Job last = jobs.get(jobs.size() - 1);
+            nextCursor = new JobCursor(last.getPostedAt(), last.getId()).encode();
+        }
+        return new JobPage(jobs, page, size, hasNext, nextCursor);
+    }
+
+    // Same as of(), for proximity search results whose cursor also names the city of the last job
+    public static JobPage near(List<Job> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<Job> jobs = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Job last = jobs.get(jobs.size() - 1);
+            nextCursor = new NearCursor(last.getPlaceId(), new JobCursor(last.getPostedAt(), last.getId())).encode();
+        }
+        return new JobPage(jobs, 0, size, hasNext, nextCursor);
+    }
+}
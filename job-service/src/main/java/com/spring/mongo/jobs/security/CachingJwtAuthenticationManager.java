@@ -0,0 +1,124 @@
+package com.spring.mongo.jobs.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.spring.mongo.jobs.config.AppConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers verified bearer tokens by their SHA-256 digest so clients that replay the same access
+ * token skip signature verification and authority mapping. Entries never outlive the token's
+ * {@code exp} claim, nor the configured maximum TTL, and are checked against the revocation registry
+ * on every hit.
+ */
+@Component
+@Profile("!reactive")
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private final JwtAuthenticationProvider jwtAuthenticationProvider;
+    private final Cache<String, JwtAuthenticationToken> cache;
+    private final Duration maximumTtl;
+    private final RevocationRegistry revocationRegistry;
+
+    @Autowired
+    public CachingJwtAuthenticationManager(JwtDecoder jwtDecoder,
+                                           JwtAuthConverter jwtAuthConverter,
+                                           RevocationRegistry revocationRegistry,
+                                           AppConfig appConfig,
+                                           MeterRegistry meterRegistry) {
+        this.jwtAuthenticationProvider = new JwtAuthenticationProvider(jwtDecoder);
+        this.jwtAuthenticationProvider.setJwtAuthenticationConverter(jwtAuthConverter);
+        this.revocationRegistry = revocationRegistry;
+        this.maximumTtl = Duration.ofSeconds(appConfig.getJwtCacheMaximumTtl());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getJwtCacheMaximumSize())
+                .expireAfter(new Expiry<String, JwtAuthenticationToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtAuthenticationToken value, long currentTime) {
+                        return timeToLive(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtAuthenticationToken value,
+                                                  long currentTime, long currentDuration) {
+                        return timeToLive(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtAuthenticationToken value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtAuthentication");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        String key = digest(bearer.getToken());
+
+        JwtAuthenticationToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            // The converter only checked revocation when the token was first seen
+            if (revocationRegistry.isRevoked(cached.getToken())) {
+                cache.invalidate(key);
+                throw new InvalidBearerTokenException("Token has been revoked");
+            }
+            // Tokens are mutable (details, authenticated flag), so hand each request its own copy
+            JwtAuthenticationToken token =
+                    new JwtAuthenticationToken(cached.getToken(), cached.getAuthorities(), cached.getName());
+            token.setDetails(bearer.getDetails());
+            return token;
+        }
+
+        Authentication result = jwtAuthenticationProvider.authenticate(bearer);
+        if (result instanceof JwtAuthenticationToken token) {
+            cache.put(key, token);
+        }
+        return result;
+    }
+
+    private long timeToLive(JwtAuthenticationToken token) {
+        Duration ttl = maximumTtl;
+        Instant expiresAt = token.getToken().getExpiresAt();
+        if (expiresAt != null) {
+            Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+            if (untilExpiry.compareTo(ttl) < 0) {
+                ttl = untilExpiry;
+            }
+        }
+        return Math.max(0, ttl.toNanos());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.spring.mongo.jobs.security;
+
+import com.nimbusds.jose.jwk.source.OutageTolerantJWKSetSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jose.util.events.EventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Micrometer instrumentation of the JWK source: {@code jwks.fetch} times every request to the JWKS
+ * endpoint by outcome, {@code jwks.events} counts the cache, retry, rate limit and outage events of
+ * the Nimbus source chain by event type.
+ */
+@Slf4j
+class JwkSourceMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    JwkSourceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    ResourceRetriever timed(ResourceRetriever retriever) {
+        return url -> fetch(retriever, url);
+    }
+
+    <S> EventListener<S, SecurityContext> listener() {
+        return event -> {
+            if (event instanceof OutageTolerantJWKSetSource.OutageEvent<?> outage) {
+                log.warn("JWKS endpoint unreachable, serving the last known keys for another {} ms",
+                        outage.getRemainingTime());
+            }
+            meterRegistry.counter("jwks.events", "event", event.getClass().getSimpleName()).increment();
+        };
+    }
+
+    private Resource fetch(ResourceRetriever retriever, URL url) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Resource resource = retriever.retrieveResource(url);
+            outcome = "success";
+            return resource;
+        } finally {
+            sample.stop(meterRegistry.timer("jwks.fetch", "outcome", outcome));
+        }
+    }
+}
@@ -2,42 +2,41 @@ package com.spring.mongo.jobs.security;
 
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
-    @Override
-    public AbstractAuthenticationToken convert(@NonNull Jwt jwt) {
-        Collection<GrantedAuthority> authorities = new HashSet<>(extractResourceRoles(jwt));
-        log.info("authorities: {}", authorities);
+    private final RevocationRegistry revocationRegistry;
+    private final RoleAuthorities roleAuthorities;
 
-        return new JwtAuthenticationToken(jwt,  authorities, jwt.getClaimAsString("sub"));
+    @Autowired
+    public JwtAuthConverter(RevocationRegistry revocationRegistry, RoleAuthorities roleAuthorities) {
+        this.revocationRegistry = revocationRegistry;
+        this.roleAuthorities = roleAuthorities;
     }
 
-    private Collection<? extends GrantedAuthority> extractResourceRoles(Jwt jwt) {
-        if (jwt.getClaim("roles") == null) {
-            return Set.of();
+    @Override
+    public AbstractAuthenticationToken convert(@NonNull Jwt jwt) {
+        if (revocationRegistry.isRevoked(jwt)) {
+            throw new InvalidBearerTokenException("Token has been revoked");
         }
 
-        List<String> roles = jwt.getClaimAsStringList("roles");
-        return roles
-                .stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toSet());
+        // Shared, interned authorities of the token's role bitmask or role names
+        Collection<GrantedAuthority> authorities = roleAuthorities.authorities(jwt);
+        log.debug("authorities: {}", authorities);
+
+        return new JwtAuthenticationToken(jwt,  authorities, jwt.getClaimAsString("sub"));
     }
 }
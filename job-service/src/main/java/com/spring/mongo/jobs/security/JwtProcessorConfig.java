@@ -0,0 +1,74 @@
+package com.spring.mongo.jobs.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.spring.mongo.jobs.config.AppConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Token verification shared by the servlet and the reactive resource server
+@Configuration
+public class JwtProcessorConfig {
+
+    private final AppConfig appConfig;
+
+    @Autowired
+    public JwtProcessorConfig(AppConfig appConfig) {
+        this.appConfig = appConfig;
+    }
+
+    /**
+     * The JWK set is refreshed in the background ahead of expiry, so requests never wait on the JWKS
+     * endpoint while the keys are current. Concurrent requests with an unknown kid share a single
+     * refetch, refetches for unknown kids are rate limited, and while auth-service is unreachable the
+     * last known set keeps being served for the outage tolerance period.
+     */
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(MeterRegistry meterRegistry) throws MalformedURLException {
+        JwkSourceMetrics metrics = new JwkSourceMetrics(meterRegistry);
+        int timeout = (int) TimeUnit.SECONDS.toMillis(appConfig.getJwksTimeout());
+        ResourceRetriever retriever = metrics.timed(new DefaultResourceRetriever(timeout, timeout,
+                JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT));
+
+        return JWKSourceBuilder.create(new URL(appConfig.getJwkSetUri()), retriever)
+                .refreshAheadCache(TimeUnit.SECONDS.toMillis(appConfig.getJwksCacheTtl()),
+                        TimeUnit.SECONDS.toMillis(appConfig.getJwksTimeout()),
+                        TimeUnit.SECONDS.toMillis(appConfig.getJwksRefreshAhead()),
+                        true, metrics.listener())
+                .rateLimited(TimeUnit.SECONDS.toMillis(appConfig.getJwksRateLimit()), metrics.listener())
+                .retrying(metrics.listener())
+                .outageTolerant(TimeUnit.SECONDS.toMillis(appConfig.getJwksOutageTolerance()), metrics.listener())
+                .build();
+    }
+
+    @Bean
+    public DefaultJWTProcessor<SecurityContext> jwtProcessor(JWKSource<SecurityContext> jwkSource) {
+        // Spring's JWK set builder only knows RSA/EC algorithms, so build the Nimbus processor
+        // ourselves to also accept EdDSA keys published by the auth-service
+        Set<JWSAlgorithm> algorithms = appConfig.getJwsAlgorithms()
+                .stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // Claims are validated by Spring's JwtValidators in the decoders
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return jwtProcessor;
+    }
+}
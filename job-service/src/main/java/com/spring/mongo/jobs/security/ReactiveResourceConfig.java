@@ -0,0 +1,81 @@
+package com.spring.mongo.jobs.security;
+
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.spring.mongo.jobs.config.AppConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Resource server for the {@code reactive} profile. Tokens go through the same Nimbus processor as
+ * in servlet mode. The processor's JWK source fetches the JWKS with a blocking HTTP call on first
+ * use and on an unknown kid, so verification runs on the bounded elastic scheduler and never on the
+ * event loop.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@Profile("reactive")
+public class ReactiveResourceConfig {
+
+    private final AppConfig appConfig;
+
+    @Autowired
+    public ReactiveResourceConfig(AppConfig appConfig) {
+        this.appConfig = appConfig;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveJwtDecoder reactiveJwtDecoder,
+                                                         JwtAuthConverter jwtAuthConverter) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/**",
+                                "/v2/api-docs/**",
+                                "/v3/api-docs/**",
+                                "/swagger-resources/**",
+                                "/swagger-ui/**",
+                                "/webjars/**",
+                                "/swagger-ui.html").permitAll()
+                        .anyExchange().authenticated())
+
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt
+                                .jwtDecoder(reactiveJwtDecoder)
+                                .jwtAuthenticationConverter(new ReactiveJwtAuthenticationConverterAdapter(jwtAuthConverter))
+                        )
+                );
+
+        return http.build();
+    }
+
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder(DefaultJWTProcessor<SecurityContext> jwtProcessor) {
+        NimbusReactiveJwtDecoder jwtDecoder = new NimbusReactiveJwtDecoder(jwt ->
+                Mono.fromCallable(() -> jwtProcessor.process(jwt, null))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        // Same mapping as NimbusJwtDecoder, so invalid tokens answer 401 rather than 500
+                        .onErrorMap(BadJOSEException.class, e -> new BadJwtException(e.getMessage(), e)));
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(appConfig.getJwtIssuerUri()));
+        return jwtDecoder;
+    }
+}
@@ -1,31 +1,40 @@
 package com.spring.mongo.jobs.security;
 
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.spring.mongo.jobs.config.AppConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
 @EnableWebSecurity
+@Profile("!reactive")
 @Slf4j
 public class ResourceConfig {
 
-    private final JwtAuthConverter jwtAuthConverter;
+    private final AppConfig appConfig;
 
     @Autowired
-    public ResourceConfig(JwtAuthConverter jwtAuthConverter) {
-        this.jwtAuthConverter = jwtAuthConverter;
+    public ResourceConfig(AppConfig appConfig) {
+        this.appConfig = appConfig;
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           CachingJwtAuthenticationManager jwtAuthenticationManager) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sessionManagement -> sessionManagement
@@ -43,10 +52,17 @@ public class ResourceConfig {
 
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt
-                                .jwtAuthenticationConverter(jwtAuthConverter)
+                                .authenticationManager(jwtAuthenticationManager)
                         )
                 );
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public JwtDecoder jwtDecoder(DefaultJWTProcessor<SecurityContext> jwtProcessor) {
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(appConfig.getJwtIssuerUri()));
+        return jwtDecoder;
+    }
+}
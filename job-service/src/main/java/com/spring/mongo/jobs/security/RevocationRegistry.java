@@ -0,0 +1,137 @@
+package com.spring.mongo.jobs.security;
+
+import com.spring.mongo.jobs.config.AppConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of the auth-service revocation feed, so revoked access tokens are rejected without
+ * introspecting every request. Each poll only fetches the entries added since the last version seen,
+ * and entries are dropped once every token they cover has expired, so memory stays bounded by the
+ * revocations of one access token lifetime. Until the first successful poll, and while auth-service
+ * is unreachable, tokens are checked against whatever was synced last. Polls authenticate with the
+ * feed secret shared with auth-service, which also keys the subject hashes.
+ */
+@Component
+@Slf4j
+public class RevocationRegistry {
+
+    private static final String TYPE_TOKEN = "jti";
+    private static final String TYPE_SUBJECT = "sub";
+    private static final String SECRET_HEADER = "X-Revocation-Feed-Secret";
+
+    private record Revocation(long seq, String type, String value, Instant revokedAt, Instant expiresAt) {
+    }
+
+    private record RevocationFeed(long version, boolean hasMore, List<Revocation> revocations) {
+    }
+
+    // jti -> expiry of the revoked token
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    // HMAC of the subject -> latest revocation, tokens issued up to then are revoked
+    private final Map<String, Revocation> revokedSubjects = new ConcurrentHashMap<>();
+
+    private final RestClient restClient;
+    private final String feedUri;
+    private final String feedSecret;
+    private final SecretKeySpec subjectKey;
+    private volatile long version;
+
+    @Autowired
+    public RevocationRegistry(ObjectProvider<RestClient.Builder> restClientBuilder, AppConfig appConfig) {
+        this.restClient = restClientBuilder.getIfAvailable(RestClient::builder).build();
+        this.feedUri = appConfig.getRevocationFeedUri();
+        this.feedSecret = appConfig.getRevocationFeedSecret();
+        this.subjectKey = new SecretKeySpec(feedSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        if (!revokedTokens.isEmpty() && jwt.getId() != null && revokedTokens.containsKey(jwt.getId())) {
+            return true;
+        }
+        if (!revokedSubjects.isEmpty() && jwt.getSubject() != null) {
+            Revocation revocation = revokedSubjects.get(subjectHash(jwt.getSubject()));
+            return revocation != null
+                    && (jwt.getIssuedAt() == null || !jwt.getIssuedAt().isAfter(revocation.revokedAt()));
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.revocationPollInterval}", timeUnit = TimeUnit.SECONDS)
+    public void scheduledPoll() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.warn("Unable to poll the revocation feed, keeping version {}: {}", version, e.getMessage());
+        }
+        prune();
+    }
+
+    public void poll() {
+        boolean hasMore = true;
+        while (hasMore) {
+            RevocationFeed feed = restClient.get()
+                    .uri(feedUri + "?since={since}", version)
+                    .header(SECRET_HEADER, feedSecret)
+                    .retrieve()
+                    .body(RevocationFeed.class);
+            if (feed == null) {
+                return;
+            }
+            if (feed.version() < version) {
+                // The feed was reset, start over from the beginning
+                log.warn("Revocation feed went back from version {} to {}, resyncing", version, feed.version());
+                revokedTokens.clear();
+                revokedSubjects.clear();
+                version = 0;
+                continue;
+            }
+            feed.revocations().forEach(this::apply);
+            version = feed.version();
+            hasMore = feed.hasMore();
+        }
+    }
+
+    private void apply(Revocation revocation) {
+        if (TYPE_TOKEN.equals(revocation.type())) {
+            revokedTokens.put(revocation.value(), revocation.expiresAt());
+        } else if (TYPE_SUBJECT.equals(revocation.type())) {
+            revokedSubjects.merge(revocation.value(), revocation,
+                    (current, next) -> next.expiresAt().isAfter(current.expiresAt()) ? next : current);
+        }
+    }
+
+    private void prune() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        revokedSubjects.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+    }
+
+    // Matches the hashing auth-service applies before publishing a subject
+    private String subjectHash(String subject) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(subjectKey);
+            byte[] hash = mac.doFinal(subject.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.spring.mongo.jobs.security;
+
+import com.spring.mongo.jobs.config.AppConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps the role claims of a token to authorities: either the {@code rm} bitmask, decoded with the
+ * role registry auth-service publishes next to its JWKS, or the {@code roles} list of older tokens.
+ * Every distinct mask or list resolves to one shared immutable collection, so requests reuse the
+ * same authority objects instead of building them per request. Tokens are signed, so the number of
+ * distinct role combinations stays small; the interned sets are still capped.
+ */
+@Component
+@Slf4j
+public class RoleAuthorities {
+
+    private static final String MASK_CLAIM = "rm";
+    private static final String ROLES_CLAIM = "roles";
+    private static final int MAX_INTERNED = 1024;
+
+    private record RoleRegistry(Map<String, Integer> roles) {
+    }
+
+    private final Map<Long, List<GrantedAuthority>> byMask = new ConcurrentHashMap<>();
+    private final Map<List<String>, List<GrantedAuthority>> byNames = new ConcurrentHashMap<>();
+
+    private final RestClient restClient;
+    private final String registryUri;
+    private volatile GrantedAuthority[] authoritiesByBit = new GrantedAuthority[0];
+    private volatile String etag;
+
+    @Autowired
+    public RoleAuthorities(ObjectProvider<RestClient.Builder> restClientBuilder, AppConfig appConfig) {
+        this.restClient = restClientBuilder.getIfAvailable(RestClient::builder).build();
+        this.registryUri = appConfig.getRoleRegistryUri();
+    }
+
+    public List<GrantedAuthority> authorities(Jwt jwt) {
+        if (jwt.getClaims().get(MASK_CLAIM) instanceof Number mask) {
+            return fromMask(mask.longValue());
+        }
+        List<String> roles = jwt.getClaimAsStringList(ROLES_CLAIM);
+        if (roles == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = byNames.get(roles);
+        if (authorities == null) {
+            authorities = roles.stream()
+                    .distinct()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+            intern(byNames, List.copyOf(roles), authorities);
+        }
+        return authorities;
+    }
+
+    @Scheduled(fixedDelayString = "${application.jwt.roleRegistryRefreshInterval}", timeUnit = TimeUnit.SECONDS)
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Unable to refresh the role registry, keeping the last one: {}", e.getMessage());
+        }
+    }
+
+    public void refresh() {
+        ResponseEntity<RoleRegistry> response = restClient.get()
+                .uri(registryUri)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .retrieve()
+                .toEntity(RoleRegistry.class);
+        if (response.getBody() != null) {
+            update(response.getBody().roles());
+            etag = response.getHeaders().getETag();
+        }
+    }
+
+    public void update(Map<String, Integer> roles) {
+        int size = roles.values().stream().mapToInt(bit -> bit + 1).max().orElse(0);
+        GrantedAuthority[] authorities = new GrantedAuthority[size];
+        roles.forEach((name, bit) -> authorities[bit] = new SimpleGrantedAuthority(name));
+        authoritiesByBit = authorities;
+        // A renamed role changes what its bit maps to
+        byMask.clear();
+        log.info("Role registry updated: {}", roles);
+    }
+
+    private List<GrantedAuthority> fromMask(long mask) {
+        List<GrantedAuthority> cached = byMask.get(mask);
+        if (cached != null) {
+            return cached;
+        }
+
+        GrantedAuthority[] authoritiesByBit = this.authoritiesByBit;
+        List<GrantedAuthority> authorities = new ArrayList<>(Long.bitCount(mask));
+        boolean complete = true;
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int bit = Long.numberOfTrailingZeros(bits);
+            if (bit < authoritiesByBit.length && authoritiesByBit[bit] != null) {
+                authorities.add(authoritiesByBit[bit]);
+            } else {
+                complete = false;
+            }
+        }
+        if (!complete) {
+            // Role created after our last refresh, resolved again once the registry knows it
+            log.debug("Unknown role bits in mask {}", mask);
+            return List.copyOf(authorities);
+        }
+        List<GrantedAuthority> interned = List.copyOf(authorities);
+        intern(byMask, mask, interned);
+        return interned;
+    }
+
+    private static <K> void intern(Map<K, List<GrantedAuthority>> interned, K key, List<GrantedAuthority> authorities) {
+        if (interned.size() < MAX_INTERNED) {
+            interned.putIfAbsent(key, authorities);
+        }
+    }
+}
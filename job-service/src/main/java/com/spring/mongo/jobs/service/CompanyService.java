@@ -0,0 +1,130 @@
+package com.spring.mongo.jobs.service;
+
+import com.spring.mongo.jobs.cache.CompanyCache;
+import com.spring.mongo.jobs.cache.FacetCounter;
+import com.spring.mongo.jobs.cache.JobCache;
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.exceptions.JobAPIException;
+import com.spring.mongo.jobs.exceptions.ResourceNotFoundException;
+import com.spring.mongo.jobs.repository.CompanyRepository;
+import com.spring.mongo.jobs.repository.JobRepository;
+import com.spring.mongo.jobs.request.JobFields;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!reactive")
+public class CompanyService {
+
+    private final CompanyRepository companyRepository;
+    private final JobRepository jobRepository;
+    private final CompanyCache companyCache;
+    private final JobCache jobCache;
+    private final FacetCounter facetCounter;
+
+    @Autowired
+    public CompanyService(CompanyRepository companyRepository, JobRepository jobRepository,
+                          CompanyCache companyCache, JobCache jobCache, FacetCounter facetCounter) {
+        this.companyRepository = companyRepository;
+        this.jobRepository = jobRepository;
+        this.companyCache = companyCache;
+        this.jobCache = jobCache;
+        this.facetCounter = facetCounter;
+    }
+
+    // Read from the collection rather than the cache, so the job count is current
+    public CompanyEntity getCompany(String id) {
+        return companyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Company", "id", id));
+    }
+
+    /**
+     * The company a job body refers to: the one named by companyId, else the one with the name of
+     * the body's company, created from the body's details when there is none yet. Null when the
+     * body names no company.
+     */
+    public CompanyEntity resolve(Job job) {
+        if (job.getCompanyId() != null) {
+            CompanyEntity company = companyCache.get(job.getCompanyId(),
+                    id -> companyRepository.findById(id).orElse(null));
+            if (company == null) {
+                throw new JobAPIException(HttpStatus.BAD_REQUEST, "Unknown companyId " + job.getCompanyId());
+            }
+            return company;
+        }
+        Company company = job.getCompany();
+        if (company == null || company.getName() == null || company.getName().isBlank()) {
+            return null;
+        }
+        return companyCache.getByName(company.getName(), name -> companyRepository.findOrCreate(company));
+    }
+
+    public void countJobs(Map<String, Long> deltas) {
+        companyRepository.countJobs(deltas);
+    }
+
+    public void countJob(String companyId, long delta) {
+        if (companyId != null) {
+            companyRepository.countJobs(Map.of(companyId, delta));
+        }
+    }
+
+    // Fills in the company details of the jobs from their company documents, when the fields ask for them
+    public void render(Collection<Job> jobs, JobFields fields) {
+        if (jobs.isEmpty() || !fields.needsCompany()) {
+            return;
+        }
+        Set<String> ids = jobs.stream()
+                .map(Job::getCompanyId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, CompanyEntity> companies = companyCache.getAll(ids, missing ->
+                companyRepository.findAllById(Set.copyOf(missing)).stream()
+                        .collect(Collectors.toMap(CompanyEntity::getId, Function.identity())));
+        for (Job job : jobs) {
+            CompanyEntity company = companies.get(job.getCompanyId());
+            if (company != null) {
+                job.setCompany(fields.company(company.toCompany()));
+            }
+        }
+    }
+
+    public CompanyEntity updateCompany(String id, Company details) {
+        if (details == null || details.getName() == null || details.getName().isBlank()) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, "name is required");
+        }
+        CompanyEntity previous = getCompany(id);
+
+        CompanyEntity updated;
+        try {
+            updated = companyRepository.updateCompany(id, details);
+        } catch (DuplicateKeyException e) {
+            throw new JobAPIException(HttpStatus.CONFLICT, "A company named " + details.getName() + " already exists");
+        }
+        if (updated == null) {
+            throw new ResourceNotFoundException("Company", "id", id);
+        }
+
+        if (!updated.getName().equals(previous.getName())) {
+            // Jobs carry the name for filtering, facets and search
+            jobRepository.renameCompany(id, updated.getName());
+            facetCounter.invalidate();
+        }
+        companyCache.evict(id);
+        // Cached jobs were rendered with the previous details
+        jobCache.evictAll();
+        return updated;
+    }
+}
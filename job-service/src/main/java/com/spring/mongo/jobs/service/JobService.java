@@ -1,57 +1,438 @@
 package com.spring.mongo.jobs.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.spring.mongo.jobs.cache.FacetCounter;
+import com.spring.mongo.jobs.cache.JobCache;
+import com.spring.mongo.jobs.config.AppConfig;
+import com.spring.mongo.jobs.entity.CompanyEntity;
 import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.exceptions.JobAPIException;
 import com.spring.mongo.jobs.exceptions.ResourceNotFoundException;
+import com.spring.mongo.jobs.geo.Gazetteer;
 import com.spring.mongo.jobs.repository.JobRepository;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.request.NearCursor;
+import com.spring.mongo.jobs.response.BulkJobResponse;
+import com.spring.mongo.jobs.response.BulkJobResult;
+import com.spring.mongo.jobs.response.JobFacets;
+import com.spring.mongo.jobs.response.JobPage;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
 public class JobService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final double MAX_RADIUS_KM = 1000;
+    static final int MAX_FACET_BUCKETS = 100;
+    // Companies of search hits are rendered like the hits, without the description unless asked for
+    static final JobFields SEARCH_HIT = new JobFields(Set.of("id", "title", "type", "location", "placeId",
+            "salary", "salaryMin", "salaryMax", "salaryCurrency", "postedAt", "version", "lastModifiedAt",
+            "companyId", "company.name", "company.contactEmail", "company.contactPhone"));
+
     private final JobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final AppConfig appConfig;
+    private final JobCache jobCache;
+    private final FacetCounter facetCounter;
+    private final CompanyService companyService;
 
     @Autowired
-    public JobService(JobRepository jobRepository) {
+    public JobService(JobRepository jobRepository, ObjectMapper objectMapper, AppConfig appConfig,
+                      JobCache jobCache, FacetCounter facetCounter, CompanyService companyService) {
         this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.appConfig = appConfig;
+        this.jobCache = jobCache;
+        this.facetCounter = facetCounter;
+        this.companyService = companyService;
+    }
+
+    // Listings return the summary fields unless others are asked for
+    public JobPage getJobs(JobFilter filter, int page, int size, String direction, String cursor, String fields) {
+        validatePage(page, size);
+        validateFilter(filter);
+
+        Sort.Direction sortDirection;
+        JobCursor after;
+        try {
+            sortDirection = Sort.Direction.fromString(direction);
+            after = cursor == null ? null : JobCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        JobFields projection = parseFields(fields, JobFields.SUMMARY);
+
+        if (page == 0 && after == null && fields == null) {
+            // The first page of each listing takes most of the traffic
+            return jobCache.getFirstPage(filter, size, sortDirection,
+                    () -> findJobs(filter, 0, size, sortDirection, null, projection));
+        }
+        return findJobs(filter, page, size, sortDirection, after, projection);
+    }
+
+    private JobPage findJobs(JobFilter filter, int page, int size, Sort.Direction sortDirection, JobCursor after,
+                             JobFields fields) {
+        // A cursor continues from the previous page, so offset paging only applies without one
+        long skip = after == null ? (long) page * size : 0;
+        List<Job> jobs = jobRepository.findJobs(filter, sortDirection, after, skip, size + 1, fields);
+        companyService.render(jobs, fields);
+        return JobPage.of(jobs, page, size, true);
+    }
+
+    public JobPage getCompanyJobs(String companyId, int page, int size, String direction, String cursor,
+                                  String fields) {
+        companyService.getCompany(companyId);
+        JobFilter filter = new JobFilter();
+        filter.setCompanyId(companyId);
+        return getJobs(filter, page, size, direction, cursor, fields);
+    }
+
+    public JobPage searchJobs(String text, boolean includeDescription, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, "Search text must not be empty");
+        }
+        validatePage(page, size);
+
+        List<Job> jobs = jobRepository.searchJobs(text, includeDescription, (long) page * size, size + 1);
+        companyService.render(jobs, includeDescription ? JobFields.ALL : SEARCH_HIT);
+        return JobPage.of(jobs, page, size, false);
+    }
+
+    // Unfiltered facets come from the in-memory counts, filtered ones are aggregated once per filter and cached
+    public JobFacets getFacets(JobFilter filter, int limit) {
+        validateFacetLimit(limit);
+        validateFilter(filter);
+
+        if (new JobFilter().equals(filter)) {
+            return facetCounter.facets(limit);
+        }
+        return jobCache.getFacets(filter, limit, () -> jobRepository.facetJobs(filter, limit));
+    }
+
+    /**
+     * Jobs within the radius, nearest first. Every job point is a gazetteer city, so distance order
+     * is the nearby cities by distance with the jobs of each city newest first; each city is read
+     * from its own index range, which stays fast however many jobs share a point.
+     */
+    public JobPage getJobsNear(double latitude, double longitude, double radiusKm, int size, String cursor,
+                               String fields) {
+        validatePage(0, size);
+        NearCursor after;
+        try {
+            after = cursor == null ? null : NearCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        JobFields projection = parseFields(fields, JobFields.SUMMARY);
+
+        List<Job> rows = new ArrayList<>(size + 1);
+        for (Gazetteer.PlaceDistance nearby : nearbyPlaces(latitude, longitude, radiusKm, after)) {
+            String placeId = nearby.place().id();
+            JobCursor placeAfter = after != null && after.placeId().equals(placeId) ? after.after() : null;
+            for (Job job : jobRepository.findJobsAt(placeId, placeAfter, size + 1 - rows.size(), projection)) {
+                job.setDistanceKm(roundDistance(nearby.distanceKm()));
+                rows.add(job);
+            }
+            if (rows.size() > size) {
+                break;
+            }
+        }
+        companyService.render(rows, projection);
+        return JobPage.near(rows, size);
+    }
+
+    // Cities within the radius, nearest first, starting at the city a cursor stopped in
+    static List<Gazetteer.PlaceDistance> nearbyPlaces(double latitude, double longitude, double radiusKm,
+                                                      NearCursor after) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, "lat must be within [-90, 90] and lon within [-180, 180]");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, "radiusKm must be > 0 and at most " + MAX_RADIUS_KM);
+        }
+
+        List<Gazetteer.PlaceDistance> places = Gazetteer.bundled().within(latitude, longitude, radiusKm);
+        if (after == null) {
+            return places;
+        }
+        for (int i = 0; i < places.size(); i++) {
+            if (places.get(i).place().id().equals(after.placeId())) {
+                return places.subList(i, places.size());
+            }
+        }
+        throw new JobAPIException(HttpStatus.BAD_REQUEST, "Cursor does not belong to this search");
+    }
+
+    static double roundDistance(double distanceKm) {
+        return Math.round(distanceKm * 10) / 10.0;
+    }
+
+    // Writes one JSON document per line straight from the Mongo cursor, memory stays flat
+    public void exportJobs(LocalDate since, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Job.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Job> jobs = jobRepository.streamJobs(since);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Job> iterator = jobs.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    static void validatePage(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST,
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    static JobFields parseFields(String fields, JobFields defaultFields) {
+        if (fields == null) {
+            return defaultFields;
+        }
+        try {
+            return JobFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    static void validateFacetLimit(int limit) {
+        if (limit < 1 || limit > MAX_FACET_BUCKETS) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_FACET_BUCKETS);
+        }
     }
 
-    public List<Job> getAllJobs() {
-        return jobRepository.findAll();
+    static void validateFilter(JobFilter filter) {
+        if (filter.getSalaryMin() != null && filter.getSalaryMax() != null
+                && filter.getSalaryMin() > filter.getSalaryMax()) {
+            throw new JobAPIException(HttpStatus.BAD_REQUEST, "salaryMin must not be greater than salaryMax");
+        }
     }
 
-    public Job getJobById(String id) {
-        return jobRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", id));
+    // Whole jobs are cached, a sparse fieldset is read from Mongo instead of trimming a cached copy
+    public Job getJobById(String id, String fields) {
+        JobFields projection = parseFields(fields, JobFields.ALL);
+        if (projection.isAll()) {
+            return jobCache.getJob(id, key -> {
+                Job job = jobRepository.findById(key)
+                        .orElseThrow(() -> new ResourceNotFoundException("Job", "id", key));
+                companyService.render(List.of(job), JobFields.ALL);
+                return job;
+            });
+        }
+        Job job = jobRepository.findJob(id, projection);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job", "id", id);
+        }
+        companyService.render(List.of(job), projection);
+        return job;
     }
 
     public Job createJob(Job job) {
         job.setPostedAt(LocalDate.now());
-        return jobRepository.save(job);
+        job.setLastModifiedAt(Instant.now());
+        // A client supplied version would turn the insert into a versioned update
+        job.setVersion(null);
+        job.deriveFields();
+        CompanyEntity company = companyService.resolve(job);
+        job.referTo(company);
+        long generation = facetCounter.generation();
+        Job savedJob = jobRepository.save(job);
+        jobCache.evictPages();
+        facetCounter.added(generation, savedJob);
+        if (company != null) {
+            companyService.countJob(company.getId(), 1);
+            savedJob.setCompany(company.toCompany());
+        }
+        return savedJob;
     }
 
-    public Job updateJob(String id, Job updatedJob) {
-        Job job = jobRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", id));
+    // Reads a JSON array or an NDJSON stream one item at a time and writes valid jobs in unordered batches
+    public BulkJobResponse createJobs(InputStream inputStream) throws IOException {
+        int batchSize = appConfig.getBulkBatchSize();
+        LocalDate postedAt = LocalDate.now();
+        Instant lastModifiedAt = Instant.now();
+        List<BulkJobResult> results = new ArrayList<>();
+        List<Job> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+
+        try (MappingIterator<Job> iterator = objectMapper.readerFor(Job.class).readValues(inputStream)) {
+            int index = 0;
+            while (true) {
+                Job job;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    job = iterator.nextValue();
+                } catch (JsonMappingException e) {
+                    // The iterator resyncs past the offending value, so the items after it are still read
+                    results.add(new BulkJobResult(index++, BulkJobResult.Status.INVALID, null, e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON, nothing after this point can be read reliably
+                    results.add(new BulkJobResult(index, BulkJobResult.Status.INVALID, null, e.getOriginalMessage()));
+                    break;
+                }
+
+                String error = validate(job);
+                if (error == null) {
+                    try {
+                        job.referTo(companyService.resolve(job));
+                    } catch (JobAPIException e) {
+                        error = e.getMessage();
+                    }
+                }
+                if (error != null) {
+                    results.add(new BulkJobResult(index++, BulkJobResult.Status.INVALID, null, error));
+                    continue;
+                }
+                // Assign ids up front so every created item can be reported back
+                if (job.getId() == null) {
+                    job.setId(new ObjectId().toHexString());
+                }
+                job.setPostedAt(postedAt);
+                job.setVersion(0L);
+                job.setLastModifiedAt(lastModifiedAt);
+                job.deriveFields();
+                batch.add(job);
+                batchIndexes.add(index++);
+
+                if (batch.size() == batchSize) {
+                    insertBatch(batch, batchIndexes, results);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, batchIndexes, results);
+        }
+
+        results.sort(Comparator.comparingInt(BulkJobResult::index));
+        int created = (int) results.stream()
+                .filter(result -> result.status() == BulkJobResult.Status.CREATED)
+                .count();
+        return new BulkJobResponse(results.size(), created, results.size() - created, results);
+    }
+
+    private void insertBatch(List<Job> batch, List<Integer> batchIndexes, List<BulkJobResult> results) {
+        long generation = facetCounter.generation();
+        Map<Integer, String> failures = jobRepository.insertJobs(batch);
+        jobCache.evictPages();
+        Map<String, Long> companyJobs = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String failure = failures.get(i);
+            if (failure == null) {
+                facetCounter.added(generation, batch.get(i));
+                companyJobs.merge(batch.get(i).getCompanyId(), 1L, Long::sum);
+            }
+            results.add(failure == null
+                    ? new BulkJobResult(batchIndexes.get(i), BulkJobResult.Status.CREATED, batch.get(i).getId(), null)
+                    : new BulkJobResult(batchIndexes.get(i), BulkJobResult.Status.FAILED, batch.get(i).getId(), failure));
+        }
+        companyJobs.remove(null);
+        companyService.countJobs(companyJobs);
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static String validate(Job job) {
+        if (job == null) {
+            return "Job must not be null";
+        }
+        if (isBlank(job.getTitle())) {
+            return "title is required";
+        }
+        if (isBlank(job.getType())) {
+            return "type is required";
+        }
+        if (isBlank(job.getLocation())) {
+            return "location is required";
+        }
+        if (isBlank(job.getCompanyId()) && (job.getCompany() == null || isBlank(job.getCompany().getName()))) {
+            return "companyId or company.name is required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 
-        job.setTitle(updatedJob.getTitle());
-        job.setType(updatedJob.getType());
-        job.setDescription(updatedJob.getDescription());
-        job.setLocation(updatedJob.getLocation());
-        job.setSalary(updatedJob.getSalary());
-        job.setCompany(updatedJob.getCompany());
-        // Preserve original postedAt
-        job.setPostedAt(job.getPostedAt());
+    // postedAt is never taken from the client, only the editable fields are written
+    public Job updateJob(String id, Job updatedJob, boolean partial) {
+        boolean companyChanged = !partial || updatedJob.getCompanyId() != null
+                || (updatedJob.getCompany() != null && updatedJob.getCompany().getName() != null);
+        if (companyChanged) {
+            updatedJob.referTo(companyService.resolve(updatedJob));
+        }
 
-        return jobRepository.save(job);
+        updatedJob.setLastModifiedAt(Instant.now());
+        long generation = facetCounter.generation();
+        Job before = jobRepository.updateJob(id, updatedJob, partial);
+        if (before == null) {
+            // Only a failed update pays for the extra lookup that tells a missing job from a stale version
+            if (!jobRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Job", "id", id);
+            }
+            throw new JobAPIException(HttpStatus.CONFLICT,
+                    "Job " + id + " was modified concurrently, version " + updatedJob.getVersion() + " is stale");
+        }
+        Job job = before.updatedWith(updatedJob, partial);
+        jobCache.evict(id);
+        facetCounter.updated(generation, before, job);
+        // The previous document comes back from the same write, so the company counts move without a read
+        if (!Objects.equals(before.getCompanyId(), job.getCompanyId())) {
+            companyService.countJob(before.getCompanyId(), -1);
+            companyService.countJob(job.getCompanyId(), 1);
+        }
+        companyService.render(List.of(job), JobFields.ALL);
+        return job;
     }
 
     public void deleteJob(String id) {
-        Job job = jobRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", id));
-        jobRepository.delete(job);
+        long generation = facetCounter.generation();
+        Job removed = jobRepository.removeJob(id);
+        if (removed == null) {
+            throw new ResourceNotFoundException("Job", "id", id);
+        }
+        jobCache.evict(id);
+        facetCounter.removed(generation, removed);
+        companyService.countJob(removed.getCompanyId(), -1);
     }
 }
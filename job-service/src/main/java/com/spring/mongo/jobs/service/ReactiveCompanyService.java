@@ -0,0 +1,101 @@
+package com.spring.mongo.jobs.service;
+
+import com.spring.mongo.jobs.entity.Company;
+import com.spring.mongo.jobs.entity.CompanyEntity;
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.exceptions.JobAPIException;
+import com.spring.mongo.jobs.exceptions.ResourceNotFoundException;
+import com.spring.mongo.jobs.repository.ReactiveCompanyRepository;
+import com.spring.mongo.jobs.repository.ReactiveJobRepository;
+import com.spring.mongo.jobs.request.JobFields;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link CompanyService} for the {@code reactive} profile. Company
+ * documents are read for every render rather than cached.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCompanyService {
+
+    private final ReactiveCompanyRepository companyRepository;
+    private final ReactiveJobRepository jobRepository;
+
+    @Autowired
+    public ReactiveCompanyService(ReactiveCompanyRepository companyRepository, ReactiveJobRepository jobRepository) {
+        this.companyRepository = companyRepository;
+        this.jobRepository = jobRepository;
+    }
+
+    public Mono<CompanyEntity> getCompany(String id) {
+        return companyRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Company", "id", id)));
+    }
+
+    // Same rules as CompanyService.resolve, completes empty when the body names no company
+    public Mono<CompanyEntity> resolve(Job job) {
+        if (job.getCompanyId() != null) {
+            return companyRepository.findById(job.getCompanyId())
+                    .switchIfEmpty(Mono.error(() -> new JobAPIException(HttpStatus.BAD_REQUEST,
+                            "Unknown companyId " + job.getCompanyId())));
+        }
+        Company company = job.getCompany();
+        if (company == null || company.getName() == null || company.getName().isBlank()) {
+            return Mono.empty();
+        }
+        return companyRepository.findOrCreate(company);
+    }
+
+    public Mono<Void> countJob(String companyId, long delta) {
+        return companyId == null ? Mono.empty() : companyRepository.countJobs(companyId, delta);
+    }
+
+    public Mono<List<Job>> render(List<Job> jobs, JobFields fields) {
+        if (jobs.isEmpty() || !fields.needsCompany()) {
+            return Mono.just(jobs);
+        }
+        Set<String> ids = jobs.stream()
+                .map(Job::getCompanyId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return companyRepository.findAllById(ids)
+                .collectMap(CompanyEntity::getId)
+                .map(companies -> {
+                    for (Job job : jobs) {
+                        CompanyEntity company = companies.get(job.getCompanyId());
+                        if (company != null) {
+                            job.setCompany(fields.company(company.toCompany()));
+                        }
+                    }
+                    return jobs;
+                });
+    }
+
+    public Mono<Job> render(Job job, JobFields fields) {
+        return render(List.of(job), fields).thenReturn(job);
+    }
+
+    public Mono<CompanyEntity> updateCompany(String id, Company details) {
+        if (details == null || details.getName() == null || details.getName().isBlank()) {
+            return Mono.error(new JobAPIException(HttpStatus.BAD_REQUEST, "name is required"));
+        }
+        return getCompany(id).flatMap(previous -> companyRepository.updateCompany(id, details)
+                .onErrorMap(DuplicateKeyException.class, e -> new JobAPIException(HttpStatus.CONFLICT,
+                        "A company named " + details.getName() + " already exists"))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Company", "id", id)))
+                .flatMap(updated -> updated.getName().equals(previous.getName())
+                        ? Mono.just(updated)
+                        // Jobs carry the name for filtering, facets and search
+                        : jobRepository.renameCompany(id, updated.getName()).thenReturn(updated)));
+    }
+}
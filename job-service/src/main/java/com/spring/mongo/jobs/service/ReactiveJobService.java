@@ -0,0 +1,204 @@
+package com.spring.mongo.jobs.service;
+
+import com.spring.mongo.jobs.entity.Job;
+import com.spring.mongo.jobs.exceptions.JobAPIException;
+import com.spring.mongo.jobs.exceptions.ResourceNotFoundException;
+import com.spring.mongo.jobs.repository.ReactiveJobRepository;
+import com.spring.mongo.jobs.request.JobCursor;
+import com.spring.mongo.jobs.request.JobFields;
+import com.spring.mongo.jobs.request.JobFilter;
+import com.spring.mongo.jobs.request.NearCursor;
+import com.spring.mongo.jobs.response.JobFacets;
+import com.spring.mongo.jobs.response.JobPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of {@link JobService} for the {@code reactive} profile. Queries and
+ * updates are shared with the blocking mode; jobs are not cached here since no request thread is
+ * held while Mongo answers.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveJobService {
+
+    private final ReactiveJobRepository jobRepository;
+    private final ReactiveCompanyService companyService;
+
+    @Autowired
+    public ReactiveJobService(ReactiveJobRepository jobRepository, ReactiveCompanyService companyService) {
+        this.jobRepository = jobRepository;
+        this.companyService = companyService;
+    }
+
+    public Mono<JobPage> getJobs(JobFilter filter, int page, int size, String direction, String cursor,
+                                 String fields) {
+        return Mono.defer(() -> {
+            JobService.validatePage(page, size);
+            JobService.validateFilter(filter);
+
+            Sort.Direction sortDirection;
+            JobCursor after;
+            try {
+                sortDirection = Sort.Direction.fromString(direction);
+                after = cursor == null ? null : JobCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new JobAPIException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+
+            JobFields projection = JobService.parseFields(fields, JobFields.SUMMARY);
+
+            // A cursor continues from the previous page, so offset paging only applies without one
+            long skip = after == null ? (long) page * size : 0;
+            return jobRepository.findJobs(filter, sortDirection, after, skip, size + 1, projection)
+                    .collectList()
+                    .flatMap(jobs -> companyService.render(jobs, projection))
+                    .map(jobs -> JobPage.of(jobs, page, size, true));
+        });
+    }
+
+    public Mono<JobPage> getCompanyJobs(String companyId, int page, int size, String direction, String cursor,
+                                        String fields) {
+        JobFilter filter = new JobFilter();
+        filter.setCompanyId(companyId);
+        return companyService.getCompany(companyId)
+                .then(getJobs(filter, page, size, direction, cursor, fields));
+    }
+
+    public Mono<JobPage> searchJobs(String text, boolean includeDescription, int page, int size) {
+        return Mono.defer(() -> {
+            if (text == null || text.isBlank()) {
+                throw new JobAPIException(HttpStatus.BAD_REQUEST, "Search text must not be empty");
+            }
+            JobService.validatePage(page, size);
+
+            return jobRepository.searchJobs(text, includeDescription, (long) page * size, size + 1)
+                    .collectList()
+                    .flatMap(jobs -> companyService.render(jobs,
+                            includeDescription ? JobFields.ALL : JobService.SEARCH_HIT))
+                    .map(jobs -> JobPage.of(jobs, page, size, false));
+        });
+    }
+
+    public Mono<JobFacets> getFacets(JobFilter filter, int limit) {
+        return Mono.defer(() -> {
+            JobService.validateFacetLimit(limit);
+            JobService.validateFilter(filter);
+            return jobRepository.facetJobs(filter, limit);
+        });
+    }
+
+    // Cities are queried one after another and take() cancels the rest once the page is full
+    public Mono<JobPage> getJobsNear(double latitude, double longitude, double radiusKm, int size, String cursor,
+                                     String fields) {
+        return Mono.defer(() -> {
+            JobService.validatePage(0, size);
+            NearCursor after;
+            try {
+                after = cursor == null ? null : NearCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new JobAPIException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            JobFields projection = JobService.parseFields(fields, JobFields.SUMMARY);
+
+            return Flux.fromIterable(JobService.nearbyPlaces(latitude, longitude, radiusKm, after))
+                    .concatMap(nearby -> {
+                        String placeId = nearby.place().id();
+                        JobCursor placeAfter = after != null && after.placeId().equals(placeId) ? after.after() : null;
+                        return jobRepository.findJobsAt(placeId, placeAfter, size + 1, projection)
+                                .doOnNext(job -> job.setDistanceKm(JobService.roundDistance(nearby.distanceKm())));
+                    })
+                    .take(size + 1)
+                    .collectList()
+                    .flatMap(rows -> companyService.render(rows, projection))
+                    .map(rows -> JobPage.near(rows, size));
+        });
+    }
+
+    // Demand from the response drives the Mongo cursor, so a slow client never buffers the collection
+    public Flux<Job> exportJobs(LocalDate since) {
+        return jobRepository.streamJobs(since);
+    }
+
+    public Mono<Job> getJobById(String id, String fields) {
+        return Mono.defer(() -> {
+            JobFields projection = JobService.parseFields(fields, JobFields.ALL);
+            return jobRepository.findJob(id, projection)
+                    .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Job", "id", id)))
+                    .flatMap(job -> companyService.render(job, projection));
+        });
+    }
+
+    public Mono<Job> createJob(Job job) {
+        job.setPostedAt(LocalDate.now());
+        job.setLastModifiedAt(Instant.now());
+        // A client supplied version would turn the insert into a versioned update
+        job.setVersion(null);
+        job.deriveFields();
+        return companyService.resolve(job)
+                .flatMap(company -> {
+                    job.referTo(company);
+                    return jobRepository.save(job)
+                            .flatMap(saved -> companyService.countJob(company.getId(), 1).thenReturn(saved))
+                            .doOnNext(saved -> saved.setCompany(company.toCompany()));
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    job.referTo(null);
+                    return jobRepository.save(job);
+                }));
+    }
+
+    public Mono<Job> updateJob(String id, Job updatedJob, boolean partial) {
+        boolean companyChanged = !partial || updatedJob.getCompanyId() != null
+                || (updatedJob.getCompany() != null && updatedJob.getCompany().getName() != null);
+        if (!companyChanged) {
+            return update(id, updatedJob, partial)
+                    .flatMap(job -> companyService.render(job, JobFields.ALL));
+        }
+        return companyService.resolve(updatedJob)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(company -> {
+                    updatedJob.referTo(company.orElse(null));
+                    return update(id, updatedJob, partial);
+                })
+                .flatMap(job -> companyService.render(job, JobFields.ALL));
+    }
+
+    private Mono<Job> update(String id, Job updatedJob, boolean partial) {
+        updatedJob.setLastModifiedAt(Instant.now());
+        return jobRepository.updateJob(id, updatedJob, partial)
+                // Only a failed update pays for the extra lookup that tells a missing job from a stale version
+                .switchIfEmpty(Mono.defer(() -> jobRepository.existsById(id)
+                        .flatMap(exists -> Mono.<Job>error(exists
+                                ? new JobAPIException(HttpStatus.CONFLICT, "Job " + id + " was modified " +
+                                "concurrently, version " + updatedJob.getVersion() + " is stale")
+                                : new ResourceNotFoundException("Job", "id", id)))))
+                .flatMap(before -> {
+                    Job job = before.updatedWith(updatedJob, partial);
+                    // The previous document comes back from the same write, so the company counts move
+                    // without a read
+                    return Objects.equals(before.getCompanyId(), job.getCompanyId())
+                            ? Mono.just(job)
+                            : companyService.countJob(before.getCompanyId(), -1)
+                                    .then(companyService.countJob(job.getCompanyId(), 1))
+                                    .thenReturn(job);
+                });
+    }
+
+    public Mono<Void> deleteJob(String id) {
+        return jobRepository.removeJob(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Job", "id", id)))
+                .flatMap(removed -> companyService.countJob(removed.getCompanyId(), -1));
+    }
+}
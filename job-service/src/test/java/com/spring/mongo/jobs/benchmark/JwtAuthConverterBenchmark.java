@@ -0,0 +1,167 @@
+package com.spring.mongo.jobs.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.spring.mongo.jobs.config.AppConfig;
+import com.spring.mongo.jobs.security.JwtAuthConverter;
+import com.spring.mongo.jobs.security.RevocationRegistry;
+import com.spring.mongo.jobs.security.RoleAuthorities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.client.RestClient;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Authorization header size, header parse cost and per-request allocation of the authentication
+ * converter for tokens carrying role names ({@code roles}) against tokens carrying the role bitmask
+ * ({@code rm}). {@code legacyConvertRoleNames} is the converter as it was before authorities were
+ * interned. Allocation is reported by the GC profiler as {@code gc.alloc.rate.norm} (bytes/op).
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=com.spring.mongo.jobs.benchmark.JwtAuthConverterBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthConverterBenchmark {
+
+    private static final List<String> ROLES = List.of("ROLE_DEVELOPER", "ROLE_EMPLOYER");
+    private static final Map<String, Integer> REGISTRY = Map.of("ROLE_DEVELOPER", 0, "ROLE_EMPLOYER", 1, "ROLE_ADMIN", 2);
+
+    private String roleNamesToken;
+    private String roleMaskToken;
+    private Jwt roleNamesJwt;
+    private Jwt roleMaskJwt;
+    private JwtAuthConverter converter;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+        roleNamesToken = sign(key, claims().claim("roles", ROLES));
+        roleMaskToken = sign(key, claims().claim("rm", 0b11L));
+        roleNamesJwt = jwt(roleNamesToken);
+        roleMaskJwt = jwt(roleMaskToken);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        AppConfig appConfig = new AppConfig();
+        appConfig.setRevocationFeedUri("http://localhost:8083/api/auth/revocations");
+        appConfig.setRoleRegistryUri("http://localhost:8083/api/auth/.well-known/roles.json");
+        RoleAuthorities roleAuthorities =
+                new RoleAuthorities(beanFactory.getBeanProvider(RestClient.Builder.class), appConfig);
+        roleAuthorities.update(REGISTRY);
+        converter = new JwtAuthConverter(
+                new RevocationRegistry(beanFactory.getBeanProvider(RestClient.Builder.class), appConfig),
+                roleAuthorities);
+    }
+
+    @Benchmark
+    public SignedJWT parseRoleNames() throws ParseException {
+        return parse(roleNamesToken);
+    }
+
+    @Benchmark
+    public SignedJWT parseRoleMask() throws ParseException {
+        return parse(roleMaskToken);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken legacyConvertRoleNames() {
+        return new JwtAuthenticationToken(roleNamesJwt, new HashSet<>(roleNamesJwt.getClaimAsStringList("roles")
+                .stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toSet())), roleNamesJwt.getClaimAsString("sub"));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convertRoleNames() {
+        return converter.convert(roleNamesJwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convertRoleMask() {
+        return converter.convert(roleMaskJwt);
+    }
+
+    private static JWTClaimsSet.Builder claims() {
+        Instant now = Instant.now();
+        return new JWTClaimsSet.Builder()
+                .issuer("http://localhost:8083/api/auth")
+                .subject("alice_smith")
+                .jwtID(UUID.randomUUID().toString())
+                .notBeforeTime(Date.from(now))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(800)));
+    }
+
+    private static String sign(RSAKey key, JWTClaimsSet.Builder claims) throws JOSEException {
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(key.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims.build());
+        signedJWT.sign(new RSASSASigner(key));
+        return signedJWT.serialize();
+    }
+
+    // Claims the way Spring's NimbusJwtDecoder hands them to the converter
+    private static Jwt jwt(String token) throws ParseException {
+        SignedJWT signedJWT = parse(token);
+        Map<String, Object> claims = signedJWT.getJWTClaimsSet().toJSONObject();
+        claims.put("iat", signedJWT.getJWTClaimsSet().getIssueTime().toInstant());
+        claims.put("exp", signedJWT.getJWTClaimsSet().getExpirationTime().toInstant());
+        claims.put("nbf", signedJWT.getJWTClaimsSet().getNotBeforeTime().toInstant());
+        return new Jwt(token, signedJWT.getJWTClaimsSet().getIssueTime().toInstant(),
+                signedJWT.getJWTClaimsSet().getExpirationTime().toInstant(),
+                signedJWT.getHeader().toJSONObject(), claims);
+    }
+
+    private static SignedJWT parse(String token) throws ParseException {
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        signedJWT.getJWTClaimsSet();
+        return signedJWT;
+    }
+
+    public static void main(String[] args) throws Exception {
+        JwtAuthConverterBenchmark benchmark = new JwtAuthConverterBenchmark();
+        benchmark.setUp();
+        System.out.printf("Authorization header bytes: roles=%d rm=%d%n",
+                ("Bearer " + benchmark.roleNamesToken).length(), ("Bearer " + benchmark.roleMaskToken).length());
+
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthConverterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.spring.mongo.jobs.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalaryTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "$90K - $100K        | 90000   | 100000  | USD",
+            "$90-100K            | 90000   | 100000  | USD",
+            "$70 - 80 thousand   | 70000   | 80000   | USD",
+            "$1.2M               | 1200000 | 1200000 | USD",
+            "5 million USD       | 5000000 | 5000000 | USD",
+            "INR 10 mn           | 10000000 | 10000000 | INR",
+            "€55,000 - €65,000   | 55000   | 65000   | EUR",
+            "GBP 40k-50k         | 40000   | 50000   | GBP",
+            "£45,000             | 45000   | 45000   | GBP",
+            "12-25 LPA           | 1200000 | 2500000 | INR",
+            "₹8 lakh - ₹12 lakhs | 800000  | 1200000 | INR",
+            "8 lacs              | 800000  | 800000  | INR",
+            "$120K+              | 120000  | 120000  | USD",
+    })
+    void parsesAnnualRanges(String text, long min, long max, String currency) {
+        assertThat(Salary.parse(text)).isEqualTo(new Salary(min, max, currency));
+    }
+
+    @Test
+    void ordersAReversedRange() {
+        assertThat(Salary.parse("USD 100K - 90K")).isEqualTo(new Salary(90000, 100000, "USD"));
+    }
+
+    @Test
+    void prefersACurrencyCodeOverASymbol() {
+        assertThat(Salary.parse("$50,000 - $60,000 EUR")).isEqualTo(new Salary(50000, 60000, "EUR"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"$40 per hour", "$5,000/month", "£300 a day", "$800 weekly", "€25/hr"})
+    void rejectsRatesThatAreNotAnnual(String text) {
+        assertThat(Salary.parse(text)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Competitive", "90-100K", "DOE"})
+    void rejectsTextWithoutAnAmountAndCurrency(String text) {
+        assertThat(Salary.parse(text)).isNull();
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = "   ")
+    void rejectsMissingText(String text) {
+        assertThat(Salary.parse(text)).isNull();
+    }
+}
@@ -0,0 +1,68 @@
+package com.spring.mongo.jobs.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GazetteerTest {
+
+    private final Gazetteer gazetteer = Gazetteer.bundled();
+
+    @ParameterizedTest
+    @CsvSource({
+            "Boston, boston-us",
+            "'Boston, MA', boston-us",
+            "'  boston ,  ma ', boston-us",
+            "'Boston, US', boston-us",
+            "NYC, new-york-us",
+            "'New York, USA', new-york-us",
+            "'Pheonix, AZ', phoenix-us",
+            "Bengaluru, bangalore-in",
+            "'Paris, France', paris-fr",
+    })
+    void resolvesNamesRegionsAndAliases(String location, String id) {
+        assertThat(gazetteer.resolve(location).id()).isEqualTo(id);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"Remote", "Atlantis", "Remote, US"})
+    void leavesUnknownLocationsUnresolved(String location) {
+        assertThat(gazetteer.resolve(location)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Portland, ME", "Paris, TX", "Paris, USA", "Boston, UK"})
+    void leavesCitiesQualifiedWithAnotherRegionOrCountryUnresolved(String location) {
+        assertThat(gazetteer.resolve(location)).isNull();
+    }
+
+    @Test
+    void placesWithinARadiusAreNearestFirst() {
+        List<Gazetteer.PlaceDistance> nearby = gazetteer.within(40.7128, -74.0060, 200);
+
+        assertThat(nearby).extracting(placeDistance -> placeDistance.place().id())
+                .containsExactly("new-york-us", "brooklyn-us", "philadelphia-us");
+        assertThat(nearby.get(0).distanceKm()).isCloseTo(0, within(0.01));
+        assertThat(nearby.get(1).distanceKm()).isCloseTo(6.48, within(0.01));
+    }
+
+    @Test
+    void radiusIsInclusive() {
+        assertThat(gazetteer.within(42.3601, -71.0589, 0))
+                .extracting(placeDistance -> placeDistance.place().id())
+                .containsExactly("boston-us");
+    }
+
+    @Test
+    void distanceIsTheGreatCircleDistance() {
+        assertThat(Gazetteer.distanceKm(40.7128, -74.0060, 42.3601, -71.0589)).isCloseTo(306.11, within(0.01));
+    }
+}
@@ -0,0 +1,62 @@
+package com.spring.mongo.jobs.request;
+
+import com.spring.mongo.jobs.entity.Company;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobFieldsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"*", " * "})
+    void starSelectsEveryField(String fields) {
+        JobFields parsed = JobFields.parse(fields);
+
+        assertThat(parsed).isSameAs(JobFields.ALL);
+        assertThat(parsed.isAll()).isTrue();
+    }
+
+    @Test
+    void parsesATrimmedCommaSeparatedList() {
+        assertThat(JobFields.parse("title, type ,company.name").include())
+                .containsExactlyInAnyOrder("title", "type", "company.name");
+    }
+
+    @Test
+    void wholeCompanyReplacesItsSubfields() {
+        assertThat(JobFields.parse("company.name,company,company.contactEmail").include())
+                .containsExactly("company");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"salary,bogus", "", "title,,type", "company.website", "score"})
+    void rejectsUnknownFields(String fields) {
+        assertThatThrownBy(() -> JobFields.parse(fields))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unknown field");
+    }
+
+    @Test
+    void onlyCompanyDetailsNeedTheCompanyDocument() {
+        assertThat(JobFields.ALL.needsCompany()).isTrue();
+        assertThat(JobFields.parse("company").needsCompany()).isTrue();
+        assertThat(JobFields.parse("title,company.contactEmail").needsCompany()).isTrue();
+        assertThat(JobFields.parse("title,company.name").needsCompany()).isFalse();
+        assertThat(JobFields.SUMMARY.needsCompany()).isFalse();
+    }
+
+    @Test
+    void rendersOnlyTheRequestedCompanyFields() {
+        Company company = new Company("Acme", "Anvils", "jobs@acme.test", "555-0100");
+
+        assertThat(JobFields.ALL.company(company)).isSameAs(company);
+        assertThat(JobFields.parse("company").company(company)).isSameAs(company);
+        assertThat(new JobFields(Set.of("company.name", "company.contactPhone")).company(company))
+                .isEqualTo(new Company("Acme", null, null, "555-0100"));
+    }
+}
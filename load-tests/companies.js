@@ -0,0 +1,49 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// p50/p99 latency of a company's job listing, and of listings and jobs that render the company
+// details from the company documents rather than from copies embedded in every job.
+export const options = {
+    scenarios: {
+        companies: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:company}': ['p(99)<50'],
+        'http_req_duration{name:company_jobs}': ['p(99)<200'],
+        'http_req_duration{name:list_company}': ['p(99)<200'],
+        'http_req_duration{name:job_all}': ['p(99)<50'],
+    },
+};
+
+export function setup() {
+    const token = login();
+    const res = http.get(`${BASE_URL}/jobs?size=100&fields=id,companyId`, authHeaders(token));
+    const jobs = res.json('content');
+    return {
+        token: token,
+        ids: jobs.map((job) => job.id),
+        companyIds: [...new Set(jobs.map((job) => job.companyId).filter((id) => id))],
+    };
+}
+
+function get(data, path, name) {
+    const res = http.get(`${BASE_URL}${path}`, Object.assign(authHeaders(data.token), { tags: { name: name } }));
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
+
+export default function (data) {
+    const companyId = data.companyIds[Math.floor(Math.random() * data.companyIds.length)];
+    const page = Math.floor(Math.random() * 20);
+    get(data, `/companies/${companyId}`, 'company');
+    get(data, `/companies/${companyId}/jobs?page=${page}&size=20`, 'company_jobs');
+    get(data, `/jobs?page=${page}&size=20&fields=title,company`, 'list_company');
+
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    get(data, `/jobs/${id}`, 'job_all');
+}
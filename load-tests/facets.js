@@ -0,0 +1,44 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// p50/p99 latency of GET /jobs/facets over the seeded corpus (see seed/jobs.js): the unfiltered
+// facets served from the in-memory counts, and facets filtered by type or location.
+export const options = {
+    scenarios: {
+        facets: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:facets}': ['p(99)<20'],
+        'http_req_duration{name:facets_filtered}': ['p(99)<500'],
+    },
+};
+
+const types = ['Full-Time', 'Part-Time', 'Contract', 'Internship'];
+const locations = ['Bangalore', 'Chennai', 'Hyderabad', 'Pune', 'Mumbai', 'Delhi', 'London', 'Berlin', 'Remote'];
+
+const pick = (values) => values[Math.floor(Math.random() * values.length)];
+
+export function setup() {
+    return { token: login() };
+}
+
+export default function (data) {
+    if (Math.random() < 0.8) {
+        const res = http.get(`${BASE_URL}/jobs/facets`,
+            Object.assign(authHeaders(data.token), { tags: { name: 'facets' } }));
+        check(res, { 'status is 200': (r) => r.status === 200 });
+    } else {
+        const filter = Math.random() < 0.5
+            ? `type=${encodeURIComponent(pick(types))}`
+            : `location=${encodeURIComponent(pick(locations))}`;
+        const res = http.get(`${BASE_URL}/jobs/facets?${filter}`,
+            Object.assign(authHeaders(data.token), { tags: { name: 'facets_filtered' } }));
+        check(res, { 'status is 200': (r) => r.status === 200 });
+    }
+}
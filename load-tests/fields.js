@@ -0,0 +1,50 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// Bytes per response and p50/p99 latency of listings with the default summary projection against
+// whole documents (fields=*), and of a job by id with and without a sparse fieldset. Pages past the
+// first are read so every request reaches MongoDB rather than the first-page cache.
+export const options = {
+    scenarios: {
+        fields: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:list_summary}': ['p(99)<200'],
+        'http_req_duration{name:list_all}': ['p(99)<400'],
+        'response_bytes{name:list_summary}': ['avg>0'],
+        'response_bytes{name:list_all}': ['avg>0'],
+        'response_bytes{name:job_fields}': ['avg>0'],
+        'response_bytes{name:job_all}': ['avg>0'],
+    },
+};
+
+const responseBytes = new Trend('response_bytes');
+
+export function setup() {
+    const token = login();
+    const res = http.get(`${BASE_URL}/jobs?size=100`, authHeaders(token));
+    return { token: token, ids: res.json('content').map((job) => job.id) };
+}
+
+function get(data, path, name) {
+    const res = http.get(`${BASE_URL}${path}`, Object.assign(authHeaders(data.token), { tags: { name: name } }));
+    check(res, { 'status is 200': (r) => r.status === 200 });
+    responseBytes.add(res.body.length, { name: name });
+}
+
+export default function (data) {
+    const page = 1 + Math.floor(Math.random() * 50);
+    get(data, `/jobs?page=${page}&size=20`, 'list_summary');
+    get(data, `/jobs?page=${page}&size=20&fields=*`, 'list_all');
+
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    get(data, `/jobs/${id}?fields=title,type,location,salary,company.name`, 'job_fields');
+    get(data, `/jobs/${id}`, 'job_all');
+}
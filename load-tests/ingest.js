@@ -0,0 +1,72 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// Jobs/sec through POST /jobs (one job per request) versus POST /jobs/bulk (NDJSON batches).
+// Compare the jobs_single and jobs_bulk rates in the summary. Needs an EMPLOYER account.
+const BULK_SIZE = Number(__ENV.BULK_SIZE || 500);
+const VUS = Number(__ENV.VUS || 10);
+const DURATION = __ENV.DURATION || '30s';
+
+const jobsSingle = new Counter('jobs_single');
+const jobsBulk = new Counter('jobs_bulk');
+
+export const options = {
+    scenarios: {
+        single: {
+            executor: 'constant-vus',
+            exec: 'single',
+            vus: VUS,
+            duration: DURATION,
+        },
+        bulk: {
+            executor: 'constant-vus',
+            exec: 'bulk',
+            vus: VUS,
+            duration: DURATION,
+            startTime: DURATION,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(99)', 'max'],
+};
+
+function job(i) {
+    return {
+        title: `Load Test Engineer ${i}`,
+        type: 'Full-Time',
+        location: 'Remote',
+        description: 'Generated by the ingestion load test.',
+        salary: '$90K - $100K',
+        company: {
+            name: 'Load Test Inc',
+            description: 'Generated company.',
+            contactEmail: 'loadtest@example.com',
+            contactPhone: '555-555-5555',
+        },
+    };
+}
+
+export function setup() {
+    return { token: login(__ENV.USERNAME || 'sarah', __ENV.PASSWORD || 'sarah123') };
+}
+
+export function single(data) {
+    const res = http.post(`${BASE_URL}/jobs`, JSON.stringify(job(__ITER)),
+        authHeaders(data.token, { 'Content-Type': 'application/json' }));
+    if (check(res, { 'created': (r) => r.status === 200 })) {
+        jobsSingle.add(1);
+    }
+}
+
+export function bulk(data) {
+    const lines = [];
+    for (let i = 0; i < BULK_SIZE; i++) {
+        lines.push(JSON.stringify(job(__ITER * BULK_SIZE + i)));
+    }
+    const res = http.post(`${BASE_URL}/jobs/bulk`, lines.join('\n'),
+        authHeaders(data.token, { 'Content-Type': 'application/x-ndjson' }));
+    if (check(res, { 'batch accepted': (r) => r.status === 200 })) {
+        jobsBulk.add(res.json('created'));
+    }
+}
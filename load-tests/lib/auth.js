@@ -0,0 +1,19 @@
+import http from 'k6/http';
+import { check, fail } from 'k6';
+
+export const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+export const AUTH_URL = __ENV.AUTH_URL || 'http://localhost:8083';
+
+export function login(username = __ENV.USERNAME || 'john_doe', password = __ENV.PASSWORD || 'john123') {
+    const res = http.post(`${AUTH_URL}/api/auth/token`, JSON.stringify({ username, password }), {
+        headers: { 'Content-Type': 'application/json' },
+    });
+    if (!check(res, { 'logged in': (r) => r.status === 200 })) {
+        fail(`login as ${username} failed with ${res.status}`);
+    }
+    return res.json('access_token');
+}
+
+export function authHeaders(token, extra = {}) {
+    return { headers: Object.assign({ Authorization: `Bearer ${token}` }, extra) };
+}
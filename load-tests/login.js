@@ -0,0 +1,54 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { AUTH_URL } from './lib/auth.js';
+
+// Latency percentiles of auth-service under 500 concurrent logins, with a steady JWKS probe running
+// alongside to show that password hashing does not starve cheap I/O-bound requests.
+const LOGIN_VUS = Number(__ENV.LOGIN_VUS || 500);
+const DURATION = __ENV.DURATION || '1m';
+
+const users = [
+    ['john_doe', 'john123'],
+    ['alice_smith', 'alice123'],
+    ['sarah', 'sarah123'],
+    ['peter', 'peter123'],
+];
+
+export const options = {
+    scenarios: {
+        logins: {
+            executor: 'constant-vus',
+            exec: 'loginBurst',
+            vus: LOGIN_VUS,
+            duration: DURATION,
+        },
+        jwks: {
+            executor: 'constant-arrival-rate',
+            exec: 'jwks',
+            rate: 50,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 20,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:token}': ['p(99)<5000'],
+        'http_req_duration{name:jwks}': ['p(99)<100'],
+        'http_req_failed{name:token}': ['rate<0.01'],
+    },
+};
+
+export function loginBurst() {
+    const [username, password] = users[Math.floor(Math.random() * users.length)];
+    const res = http.post(`${AUTH_URL}/api/auth/token`, JSON.stringify({ username, password }), {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { name: 'token' },
+    });
+    check(res, { 'logged in': (r) => r.status === 200 });
+}
+
+export function jwks() {
+    const res = http.get(`${AUTH_URL}/api/auth/.well-known/jwks.json`, { tags: { name: 'jwks' } });
+    check(res, { 'jwks served': (r) => r.status === 200 });
+}
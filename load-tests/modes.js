@@ -0,0 +1,62 @@
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// Concurrency versus memory of the servlet and the reactive mode. Run once per mode against the same
+// seeded corpus and compare the summaries:
+//   k6 run -e MODE=servlet modes.js    (job-service started normally)
+//   k6 run -e MODE=reactive modes.js   (job-service started with --spring.profiles.active=reactive)
+// Listing pages after the first are requested so the servlet mode's page cache does not answer.
+const MAX_VUS = Number(__ENV.MAX_VUS || 1000);
+
+const heapUsed = new Trend('jvm_heap_used_mb');
+const liveThreads = new Trend('jvm_threads_live');
+
+export const options = {
+    scenarios: {
+        load: {
+            executor: 'ramping-vus',
+            exec: 'load',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: MAX_VUS / 4 },
+                { duration: '30s', target: MAX_VUS / 2 },
+                { duration: '30s', target: MAX_VUS },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '15s', target: 0 },
+            ],
+            tags: { mode: __ENV.MODE || 'unknown' },
+        },
+        probe: {
+            executor: 'constant-vus',
+            exec: 'probe',
+            vus: 1,
+            duration: '3m15s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    return { token: login() };
+}
+
+export function load(data) {
+    const page = 1 + Math.floor(Math.random() * 20);
+    const res = http.get(`${BASE_URL}/jobs?page=${page}&size=20`, authHeaders(data.token));
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
+
+// Samples the service's own view of its footprint through actuator once per second
+export function probe() {
+    const heap = http.get(`${BASE_URL}/actuator/metrics/jvm.memory.used?tag=area:heap`, { tags: { name: 'probe' } });
+    if (heap.status === 200) {
+        heapUsed.add(heap.json('measurements.0.value') / (1024 * 1024));
+    }
+    const threads = http.get(`${BASE_URL}/actuator/metrics/jvm.threads.live`, { tags: { name: 'probe' } });
+    if (threads.status === 200) {
+        liveThreads.add(threads.json('measurements.0.value'));
+    }
+    sleep(1);
+}
@@ -0,0 +1,48 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// p50/p99 latency of GET /jobs/near around the seeded cities (see seed/jobs.js), first pages and the
+// page after them. Radii cover one city, a metro area and a whole region.
+export const options = {
+    scenarios: {
+        near: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:near}': ['p(99)<10'],
+        'http_req_duration{name:near_next}': ['p(99)<10'],
+    },
+};
+
+const centers = [[12.97, 77.59], [19.07, 72.87], [28.61, 77.2], [51.5, -0.12], [52.52, 13.4],
+    [40.71, -74.0], [37.77, -122.41], [1.35, 103.82]];
+const radii = [10, 50, 300];
+
+const pick = (values) => values[Math.floor(Math.random() * values.length)];
+
+export function setup() {
+    return { token: login() };
+}
+
+export default function (data) {
+    const [lat, lon] = pick(centers);
+    // Jitter the point so responses are not served from one hot set of pages
+    const query = `lat=${(lat + (Math.random() - 0.5) / 10).toFixed(4)}` +
+        `&lon=${(lon + (Math.random() - 0.5) / 10).toFixed(4)}&radiusKm=${pick(radii)}&size=20`;
+
+    const res = http.get(`${BASE_URL}/jobs/near?${query}`,
+        Object.assign(authHeaders(data.token), { tags: { name: 'near' } }));
+    check(res, { 'status is 200': (r) => r.status === 200 });
+
+    const cursor = res.status === 200 ? res.json('nextCursor') : null;
+    if (cursor) {
+        const next = http.get(`${BASE_URL}/jobs/near?${query}&cursor=${encodeURIComponent(cursor)}`,
+            Object.assign(authHeaders(data.token), { tags: { name: 'near_next' } }));
+        check(next, { 'status is 200': (r) => r.status === 200 });
+    }
+}
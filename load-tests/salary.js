@@ -0,0 +1,46 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// p50/p99 latency of salary range listings over the seeded corpus (see seed/jobs.js), alone and
+// combined with the type and location filters. Salaries are seeded in INR between 3 and 52 LPA.
+export const options = {
+    scenarios: {
+        salary: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:salary}': ['p(99)<200'],
+        'http_req_duration{name:salary_type_location}': ['p(99)<200'],
+    },
+};
+
+const types = ['Full-Time', 'Part-Time', 'Contract', 'Internship'];
+const locations = ['Bangalore', 'Chennai', 'Hyderabad', 'Pune', 'Mumbai', 'Delhi', 'London', 'Berlin', 'Remote'];
+
+const pick = (values) => values[Math.floor(Math.random() * values.length)];
+
+export function setup() {
+    return { token: login() };
+}
+
+export default function (data) {
+    // Arbitrary bounds, so first pages rarely repeat and are served by MongoDB rather than the page cache
+    const low = 500000 + Math.floor(Math.random() * 4000000);
+    const range = `salaryMin=${low}&salaryMax=${low + 500000}&currency=INR`;
+
+    if (Math.random() < 0.5) {
+        const res = http.get(`${BASE_URL}/jobs?${range}&size=20`,
+            Object.assign(authHeaders(data.token), { tags: { name: 'salary' } }));
+        check(res, { 'status is 200': (r) => r.status === 200 });
+    } else {
+        const filters = `type=${encodeURIComponent(pick(types))}&location=${encodeURIComponent(pick(locations))}`;
+        const res = http.get(`${BASE_URL}/jobs?${filters}&${range}&size=20`,
+            Object.assign(authHeaders(data.token), { tags: { name: 'salary_type_location' } }));
+        check(res, { 'status is 200': (r) => r.status === 200 });
+    }
+}
@@ -0,0 +1,33 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { BASE_URL, login, authHeaders } from './lib/auth.js';
+
+// p50/p99 latency of full-text search over the seeded corpus (see seed/jobs.js)
+export const options = {
+    scenarios: {
+        search: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:search}': ['p(99)<500'],
+    },
+};
+
+const queries = ['java', 'spring boot', 'kafka engineer', 'senior backend', 'kubernetes', 'remote',
+    'bangalore', 'hooli', 'data engineer', 'react typescript', '"site reliability"', 'python -java'];
+
+export function setup() {
+    return { token: login() };
+}
+
+export default function (data) {
+    const q = encodeURIComponent(queries[Math.floor(Math.random() * queries.length)]);
+    const page = Math.random() < 0.8 ? 0 : Math.floor(Math.random() * 5);
+    const res = http.get(`${BASE_URL}/jobs/search?q=${q}&page=${page}&size=20`,
+        Object.assign(authHeaders(data.token), { tags: { name: 'search' } }));
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,102 @@
+// Generates a corpus of jobs for the load tests.
+// Usage: mongosh mongodb://localhost:27017/jobsDB --eval "const JOBS = 1000000" seed/jobs.js
+const total = typeof JOBS === 'undefined' ? 1000000 : JOBS;
+const batchSize = 10000;
+
+const titles = ['Java Developer', 'Backend Engineer', 'Frontend Developer', 'Full Stack Engineer',
+    'Data Engineer', 'DevOps Engineer', 'Site Reliability Engineer', 'QA Engineer', 'Product Manager',
+    'Machine Learning Engineer', 'Mobile Developer', 'Security Engineer', 'Database Administrator',
+    'Cloud Architect', 'Technical Writer', 'Engineering Manager'];
+const levels = ['Junior', 'Mid-level', 'Senior', 'Lead', 'Principal'];
+const types = ['Full-Time', 'Part-Time', 'Contract', 'Internship'];
+// Gazetteer place id and [longitude, latitude] of each location, as job-service resolves them
+const places = {
+    'Bangalore': ['bangalore-in', [77.5946, 12.9716]],
+    'Chennai': ['chennai-in', [80.2707, 13.0827]],
+    'Hyderabad': ['hyderabad-in', [78.4867, 17.3850]],
+    'Pune': ['pune-in', [73.8567, 18.5204]],
+    'Mumbai': ['mumbai-in', [72.8777, 19.0760]],
+    'Delhi': ['delhi-in', [77.1025, 28.7041]],
+    'Kolkata': ['kolkata-in', [88.3639, 22.5726]],
+    'London': ['london-gb', [-0.1278, 51.5074]],
+    'Berlin': ['berlin-de', [13.4050, 52.5200]],
+    'Amsterdam': ['amsterdam-nl', [4.9041, 52.3676]],
+    'New York': ['new-york-us', [-74.0060, 40.7128]],
+    'San Francisco': ['san-francisco-us', [-122.4194, 37.7749]],
+    'Austin': ['austin-us', [-97.7431, 30.2672]],
+    'Toronto': ['toronto-ca', [-79.3832, 43.6532]],
+    'Singapore': ['singapore-sg', [103.8198, 1.3521]],
+    'Sydney': ['sydney-au', [151.2093, -33.8688]],
+};
+const locations = [...Object.keys(places), 'Remote'];
+const companies = ['Acme Corp', 'Globex', 'Initech', 'Umbrella', 'Hooli', 'Stark Industries', 'Wayne Enterprises',
+    'Wonka Labs', 'Cyberdyne', 'Soylent', 'Tyrell', 'Aperture Science', 'Vandelay Industries', 'Pied Piper'];
+const skills = ['Java', 'Spring Boot', 'MongoDB', 'Kafka', 'Kubernetes', 'Docker', 'React', 'TypeScript',
+    'Python', 'Go', 'AWS', 'GCP', 'Terraform', 'PostgreSQL', 'Redis', 'GraphQL', 'microservices', 'CI/CD'];
+
+const pick = (values) => values[Math.floor(Math.random() * values.length)];
+const epochDay = Math.floor(Date.now() / 86400000);
+
+// Keep the collections so the indexes job-service created on startup survive
+db.jobs.deleteMany({});
+db.companies.deleteMany({});
+
+// Jobs reference their company by id (as the hex string job-service writes) and keep only its name
+const companyIds = {};
+const openJobs = {};
+for (const company of companies) {
+    const id = new ObjectId();
+    companyIds[company] = id.toHexString();
+    openJobs[company] = 0;
+    db.companies.insertOne({
+        _id: id,
+        name: company,
+        description: `${company} builds software for the modern enterprise.`,
+        contactEmail: `careers@${company.toLowerCase().replace(/[^a-z]/g, '')}.com`,
+        contactPhone: '+1-555-0100',
+        openJobs: 0,
+    });
+}
+
+let batch = [];
+for (let i = 0; i < total; i++) {
+    const company = pick(companies);
+    const stack = [pick(skills), pick(skills), pick(skills)];
+    const low = 3 + Math.floor(Math.random() * 30);
+    const high = low + 5 + Math.floor(Math.random() * 20);
+    const location = pick(locations);
+    const place = places[location];
+    batch.push({
+        title: `${pick(levels)} ${pick(titles)}`,
+        type: pick(types),
+        location: location,
+        description: `We are looking for an engineer experienced with ${stack.join(', ')}. ` +
+            `You will design, build and operate services used by millions of customers, ` +
+            `review code, mentor peers and take part in an on-call rotation. `.repeat(1 + (i % 4)),
+        salary: `${low}-${high} LPA`,
+        // What job-service derives from the salary and location, this script bypasses it
+        salaryMin: low * 100000,
+        salaryMax: high * 100000,
+        salaryCurrency: 'INR',
+        // Remote jobs have no place, the nulls leave them out of the geo index
+        placeId: place ? place[0] : null,
+        point: place ? { type: 'Point', coordinates: place[1] } : null,
+        postedAt: new Date((epochDay - Math.floor(Math.random() * 365)) * 86400000),
+        companyId: companyIds[company],
+        company: { name: company },
+    });
+    openJobs[company]++;
+    if (batch.length === batchSize) {
+        db.jobs.insertMany(batch, { ordered: false });
+        batch = [];
+    }
+}
+if (batch.length) {
+    db.jobs.insertMany(batch, { ordered: false });
+}
+
+for (const company of companies) {
+    db.companies.updateOne({ _id: new ObjectId(companyIds[company]) }, { $set: { openJobs: openJobs[company] } });
+}
+
+print(`Inserted ${db.jobs.countDocuments()} jobs of ${db.companies.countDocuments()} companies`);